@@ -5,5 +5,10 @@ for f in `ls /sys/devices/system/cpu/ | grep cpu[0-9]`; do
 test -e /sys/devices/system/cpu/$f/cpufreq/scaling_governor && echo performance | sudo tee /sys/devices/system/cpu/$f/cpufreq/scaling_governor
 done
 
-#run benchmark
-java -Xmx4G -XX:+UseConcMarkSweepGC -jar jars/anonbench-0.2.jar
\ No newline at end of file
+#run benchmark, "./run.sh matrix [datasets]" compares JVM configurations instead
+if [ "$1" = "matrix" ]; then
+shift
+java -Xmx1G -cp jars/anonbench-0.2.jar org.deidentifier.arx.BenchmarkJVMMatrix "$@"
+else
+java -Xmx4G -XX:+UseG1GC -jar jars/anonbench-0.2.jar
+fi
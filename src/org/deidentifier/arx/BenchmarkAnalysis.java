@@ -27,22 +27,37 @@ import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
+import org.deidentifier.arx.analysis.Accumulator;
+import org.deidentifier.arx.analysis.AnalysisState;
+import org.deidentifier.arx.analysis.Bootstrap;
+import org.deidentifier.arx.analysis.ParetoFrontier;
+import org.deidentifier.arx.analysis.ResultsCube;
+import org.deidentifier.arx.analysis.ResultsCube.Aggregate;
 
 import de.linearbits.objectselector.Selector;
 import de.linearbits.subframe.analyzer.Analyzer;
-import de.linearbits.subframe.analyzer.buffered.BufferedGeometricMeanAnalyzer;
 import de.linearbits.subframe.graph.Field;
 import de.linearbits.subframe.graph.Function;
 import de.linearbits.subframe.graph.Labels;
 import de.linearbits.subframe.graph.Plot;
 import de.linearbits.subframe.graph.PlotHistogramClustered;
-import de.linearbits.subframe.graph.Point2D;
+import de.linearbits.subframe.graph.PlotLinesClustered;
 import de.linearbits.subframe.graph.Point3D;
-import de.linearbits.subframe.graph.Series2D;
 import de.linearbits.subframe.graph.Series3D;
 import de.linearbits.subframe.io.CSVFile;
 import de.linearbits.subframe.render.GnuPlotParams;
@@ -53,7 +68,28 @@ import de.linearbits.subframe.render.PlotGroup;
 public class BenchmarkAnalysis {
     
     /** The variables */
-    private static final String[] VARIABLES = {"Number of checks", "Number of rollups", "Execution time"};
+    private static final String[]  VARIABLES = {"Number of checks", "Number of rollups", "Execution time"};
+
+    /** The dimensions by which plots are grouped */
+    private static final String[]  FOCI      = {"Dataset", "Criteria"};
+
+    /** The results */
+    private static final File      RESULTS   = new File("results/results.csv");
+
+    /** The state of the analysis */
+    private static final File      STATE     = new File("results/analysis.state");
+
+    /** The quality-vs-cost comparison */
+    private static final File      PARETO    = new File("results/pareto.csv");
+
+    /** The measure of utility */
+    private static final String    UTILITY   = "Information loss";
+
+    /** The significance level */
+    private static final double    ALPHA     = 0.05d;
+
+    /** The bootstrap engine */
+    private static final Bootstrap BOOTSTRAP = new Bootstrap(10000, 1d - ALPHA, 0L);
 
     /**
      * Main
@@ -63,151 +99,466 @@ public class BenchmarkAnalysis {
      */
     public static void main(String[] args) throws IOException, ParseException {
 
-        generateTables();
-        generatePlots();
+        // Results with repetitions contain one value per repetition, older results contain means
+        ResultsCube header = ResultsCube.load(RESULTS, RESULTS.length());
+        String analyzer = header.hasMeasure(VARIABLES[0], Analyzer.VALUE) ? Analyzer.VALUE : Analyzer.ARITHMETIC_MEAN;
+        String[] configuration = getConfiguration(header);
+        String[] setting = getSetting(header);
+        String[] grouping = getGrouping(setting);
+        boolean pareto = header.hasMeasure(UTILITY, analyzer);
+
+        // Consume new results
+        AnalysisState state = AnalysisState.load(STATE);
+        for (String variable : VARIABLES) {
+            state.registerBuffered(variable, analyzer, grouping);
+            for (String focus : FOCI) {
+                state.register(variable, analyzer, focus, "Algorithm");
+            }
+        }
+        if (pareto) {
+            for (String measure : new String[] { UTILITY, VARIABLES[2], VARIABLES[0] }) {
+                state.register(measure, analyzer, configuration);
+            }
+        }
+        System.out.println("Consumed " + state.update(RESULTS) + " new rows");
+
+        // Render outputs whose aggregates have changed
+        generateTables(state, analyzer, setting);
+        generatePlots(state, analyzer);
+        if (pareto) {
+            generatePareto(state, analyzer, configuration);
+        }
+        state.write(STATE);
     }
 
     /**
-     * Generate the plots
+     * Generate the plots. Each plot group is rendered into a separate directory, as SUBFRAME
+     * uses fixed names for intermediate files, such that plot groups can be rendered in parallel.
+     * @param state
+     * @param analyzer
      * @throws IOException
      * @throws ParseException
      */
-    private static void generatePlots() throws IOException, ParseException {
-        
-        CSVFile file = new CSVFile(new File("results/results.csv"));
+    private static void generatePlots(AnalysisState state, String analyzer) throws IOException, ParseException {
+
+        List<PlotGroup> groups = new ArrayList<PlotGroup>();
+        List<String> outputs = new ArrayList<String>();
+        List<Integer> hashes = new ArrayList<Integer>();
+
+        for (String focus : FOCI) {
+            for (String variable : VARIABLES) {
+
+                // Check
+                Map<List<String>, Accumulator> values = state.get(variable, analyzer, focus, "Algorithm");
+                String name = (variable + "_" + focus).toLowerCase().replaceAll(" ", "_");
+                String output = "results/plots/" + name + "/" + name;
+                int hash = values.hashCode();
+                if (new File(output + ".pdf").exists() && state.isRendered(output, hash)) {
+                    continue;
+                }
+
+                // Collect
+                groups.add(getGroup(values, variable, focus));
+                outputs.add(output);
+                hashes.add(hash);
+            }
+        }
+
+        // Render
+        render(state, groups, outputs, hashes);
+    }
+
+    /**
+     * Renders the given plot groups in parallel and marks them as rendered
+     * @param state
+     * @param groups
+     * @param outputs
+     * @param hashes
+     * @throws IOException
+     */
+    private static void render(AnalysisState state,
+                               List<PlotGroup> groups,
+                               List<String> outputs,
+                               List<Integer> hashes) throws IOException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < groups.size(); i++) {
+            final PlotGroup group = groups.get(i);
+            final String output = outputs.get(i);
+            new File(output).getParentFile().mkdirs();
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    LaTeX.plot(Arrays.asList(group), output);
+                    return null;
+                }
+            }));
+        }
+
+        // Wait
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).get();
+                state.setRendered(outputs.get(i), hashes.get(i));
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
 
+    /**
+     * Compares the configurations of all algorithms by information loss and costs, i.e. execution
+     * time and number of checks, and determines the Pareto frontiers for each dataset and
+     * criteria. Writes a CSV file with all configurations and plots the frontiers.
+     * @param state
+     * @param analyzer
+     * @param configuration
+     * @throws IOException
+     * @throws ParseException
+     */
+    private static void generatePareto(AnalysisState state, String analyzer, String[] configuration) throws IOException, ParseException {
+
+        // Check
+        Map<List<String>, Accumulator> losses = state.get(UTILITY, analyzer, configuration);
+        Map<List<String>, Accumulator> times = state.get(VARIABLES[2], analyzer, configuration);
+        Map<List<String>, Accumulator> checks = state.get(VARIABLES[0], analyzer, configuration);
+        int hash = Arrays.asList(losses, times, checks).hashCode();
+        boolean changed = !PARETO.exists() || !state.isRendered(PARETO.getPath(), hash);
+
+        // Collect the algorithms of each context
+        Map<List<String>, List<String>> contexts = new LinkedHashMap<List<String>, List<String>>();
+        for (List<String> key : losses.keySet()) {
+            List<String> context = key.subList(0, key.size() - 1);
+            List<String> algorithms = contexts.get(context);
+            if (algorithms == null) {
+                algorithms = new ArrayList<String>();
+                contexts.put(context, algorithms);
+            }
+            algorithms.add(key.get(key.size() - 1));
+        }
+
+        // Create csv
+        String[] header2 = Arrays.copyOf(configuration, configuration.length + 5);
+        header2[configuration.length] = UTILITY;
+        header2[configuration.length + 1] = VARIABLES[2];
+        header2[configuration.length + 2] = VARIABLES[0];
+        header2[configuration.length + 3] = "Frontier by time";
+        header2[configuration.length + 4] = "Frontier by checks";
+        String[] header1 = new String[header2.length];
+        Arrays.fill(header1, "");
+        CSVFile csv = new CSVFile(header1, header2);
+
+        // For each context
         List<PlotGroup> groups = new ArrayList<PlotGroup>();
+        List<String> outputs = new ArrayList<String>();
+        List<Integer> hashes = new ArrayList<Integer>();
+        for (Map.Entry<List<String>, List<String>> entry : contexts.entrySet()) {
+
+            // Collect
+            List<String> context = entry.getKey();
+            List<String> algorithms = entry.getValue();
+            double[] loss = new double[algorithms.size()];
+            double[] time = new double[algorithms.size()];
+            double[] check = new double[algorithms.size()];
+            List<Accumulator> accumulators = new ArrayList<Accumulator>();
+            for (int i = 0; i < algorithms.size(); i++) {
+                List<String> key = new ArrayList<String>(context);
+                key.add(algorithms.get(i));
+                loss[i] = getMean(losses, key, accumulators);
+                time[i] = getMean(times, key, accumulators);
+                check[i] = getMean(checks, key, accumulators);
+            }
 
-        for (String variable : VARIABLES){
-            groups.add(getGroup(file, variable, "Dataset"));
+            // Compute frontiers
+            boolean[] frontierByTime = ParetoFrontier.getFrontier(loss, time);
+            boolean[] frontierByChecks = ParetoFrontier.getFrontier(loss, check);
+            for (int i = 0; i < algorithms.size(); i++) {
+                String[] line = Arrays.copyOf(context.toArray(new String[context.size()]), header2.length);
+                line[context.size()] = algorithms.get(i);
+                line[context.size() + 1] = String.valueOf(loss[i]);
+                line[context.size() + 2] = String.valueOf(time[i]);
+                line[context.size() + 3] = String.valueOf(check[i]);
+                line[context.size() + 4] = String.valueOf(frontierByTime[i]);
+                line[context.size() + 5] = String.valueOf(frontierByChecks[i]);
+                csv.addLine(line);
+            }
+
+            // Plot
+            String name = context.toString().toLowerCase().replaceAll("[^a-z0-9]+", "_").replaceAll("^_|_$", "");
+            String output = "results/pareto/" + name + "/" + name;
+            int _hash = Arrays.asList(algorithms, accumulators).hashCode();
+            if (!new File(output + ".pdf").exists() || !state.isRendered(output, _hash)) {
+                groups.add(getParetoGroup(context, loss, time, check, frontierByTime, frontierByChecks));
+                outputs.add(output);
+                hashes.add(_hash);
+            }
         }
-        for (String variable : VARIABLES){
-            groups.add(getGroup(file, variable, "Criteria"));
+
+        // Write and render
+        if (changed) {
+            csv.write(PARETO);
+            state.setRendered(PARETO.getPath(), hash);
         }
-        LaTeX.plot(groups, "results/results");
+        render(state, groups, outputs, hashes);
     }
 
     /**
-     * Generates a single table
-     * @param file
+     * Generates a single table, if its aggregates have changed. Algorithms are only compared
+     * within the same setting, which contains one line per privacy criteria. Differences between
+     * the best and the second best algorithm which are not significant are flagged with "n.s.".
+     * Confidence intervals for all algorithms and the p-values of the comparisons with the best
+     * algorithm are written to a separate file.
+     * @param state
+     * @param analyzer
+     * @param setting
      * @param variable
      * @param lowerIsBetter
      * @throws ParseException 
      * @throws IOException 
      */
-    private static void generateTable(CSVFile file, String variable, boolean lowerIsBetter) throws ParseException, IOException {
+    private static void generateTable(AnalysisState state, String analyzer, String[] setting, String variable, boolean lowerIsBetter) throws ParseException, IOException {
+
+        // Check
+        Map<List<String>, Accumulator> values = state.get(variable, analyzer, getGrouping(setting));
+        String name = "results/table_"+variable.toLowerCase().replaceAll(" ", "_");
+        File output = new File(name + ".csv");
+        File bootstrap = new File(name + "_bootstrap.csv");
+        int hash = values.hashCode();
+        if (output.exists() && bootstrap.exists() && state.isRendered(output.getPath(), hash)) {
+            return;
+        }
+
+        // Collect algorithms and settings
+        Set<String> algorithms = new LinkedHashSet<String>();
+        Set<List<String>> settings = new LinkedHashSet<List<String>>();
+        for (List<String> group : values.keySet()) {
+            algorithms.add(group.get(2));
+            settings.add(group.subList(3, group.size()));
+        }
         
         // Create csv header
-        String[] header1 = new String[BenchmarkSetup.getDatasets().length + 1];
+        int offset = setting.length + 1;
+        String[] header1 = new String[BenchmarkSetup.getDatasets().length + offset];
         Arrays.fill(header1, "");
         String[] header2 = new String[header1.length];
         header2[0] = "";
-        for (int i=1; i<header2.length; i++) {
-            header2[i] = BenchmarkSetup.getDatasets()[i-1].toString();
+        System.arraycopy(setting, 0, header2, 1, setting.length);
+        for (int i=offset; i<header2.length; i++) {
+            header2[i] = BenchmarkSetup.getDatasets()[i-offset].toString();
         }
         
         // Create csv
         CSVFile csv = new CSVFile(header1, header2);
+        String[] header3 = new String[offset + 6];
+        header3[0] = "Criteria";
+        System.arraycopy(setting, 0, header3, 1, setting.length);
+        System.arraycopy(new String[] { "Dataset", "Algorithm", "Mean", "CI lower", "CI upper", "p-value" }, 0, header3, offset, 6);
+        String[] empty = new String[header3.length];
+        Arrays.fill(empty, "");
+        CSVFile intervals = new CSVFile(empty, header3);
         
-        // For each criterion
-        for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+        // For each setting and criterion
+        for (List<String> _setting : settings) {
+            for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
             
-            // The current line
-            String scriteria = Arrays.toString(criteria);
-            String[] line = new String[header1.length];
-            line[0] = scriteria;
+                // The current line
+                String scriteria = Arrays.toString(criteria);
+                String[] line = new String[header1.length];
+                line[0] = scriteria;
+                for (int i=1; i<offset; i++) {
+                    line[i] = _setting.get(i-1);
+                }
             
-            // For each dataset
-            for (int i=1; i<header1.length; i++) {
+                // For each dataset
+                for (int i=offset; i<header1.length; i++) {
             
-                // Init
-                String dataset = BenchmarkSetup.getDatasets()[i-1].toString();
-                String firstAlgorithm = null;
-                String secondAlgorithm = null;
-                double firstValue = Double.MAX_VALUE;
-                double secondValue = Double.MAX_VALUE;
-                if (!lowerIsBetter){
-                    firstValue = Double.MIN_VALUE;
-                    secondValue = Double.MIN_VALUE;
-                }
-
-                // Select data for the given data point
-                Selector<String[]> selector = file.getSelectorBuilder()
-                                                  .field("Criteria").equals(scriteria).and()
-                                                  .field("Dataset").equals(dataset)
-                                                  .build();
+                    // Init
+                    String dataset = BenchmarkSetup.getDatasets()[i-offset].toString();
+                    String firstAlgorithm = null;
+                    String secondAlgorithm = null;
+                    double firstValue = Double.MAX_VALUE;
+                    double secondValue = Double.MAX_VALUE;
+                    if (!lowerIsBetter){
+                        firstValue = Double.MIN_VALUE;
+                        secondValue = Double.MIN_VALUE;
+                    }
 
-                // Create series
-                Series2D series = new Series2D(file, selector, 
-                                               new Field("Algorithm"),
-                                               new Field(variable, Analyzer.ARITHMETIC_MEAN));
-                
-                // Select from series
-                for (Point2D point : series.getData()) {
+                    // Select from aggregates
+                    for (String algorithm : algorithms) {
                     
-                    // Read
-                    double value = Double.valueOf(point.y);
-                    String algorithm = point.x;
+                        // Read
+                        Accumulator accumulator = values.get(getKey(scriteria, dataset, algorithm, _setting));
+                        if (accumulator == null) {
+                            continue;
+                        }
+                        double value = accumulator.get(Aggregate.ARITHMETIC_MEAN);
                     
-                    // Check
-                    if ((lowerIsBetter && value < firstValue) || 
-                        (!lowerIsBetter && value > firstValue)){
+                        // Check
+                        if ((lowerIsBetter && value < firstValue) || 
+                            (!lowerIsBetter && value > firstValue)){
                  
-                        secondValue = firstValue;
-                        secondAlgorithm = firstAlgorithm;
+                            secondValue = firstValue;
+                            secondAlgorithm = firstAlgorithm;
                         
-                        firstValue = value;
-                        firstAlgorithm = algorithm;
+                            firstValue = value;
+                            firstAlgorithm = algorithm;
                         
-                    } else if ((lowerIsBetter && value < secondValue) || 
-                               (!lowerIsBetter && value > secondValue)){
+                        } else if ((lowerIsBetter && value < secondValue) || 
+                                   (!lowerIsBetter && value > secondValue)){
                         
-                        secondValue = value;
-                        secondAlgorithm = algorithm;
+                            secondValue = value;
+                            secondAlgorithm = algorithm;
+                        }
                     }
-                }
                 
-                // Compute difference
-                double difference = 0;
-                if (lowerIsBetter) difference = (1d - (firstValue / secondValue)) * 100d;
-                else difference = (1d - (secondValue / firstValue)) * 100d;
+                    // Compute difference
+                    double difference = 0;
+                    if (lowerIsBetter) difference = (1d - (firstValue / secondValue)) * 100d;
+                    else difference = (1d - (secondValue / firstValue)) * 100d;
                 
-                // Render and store
-                final NumberFormat df = new DecimalFormat("#");
-                line[i] = firstAlgorithm + " (" + df.format(difference) + "%) " + secondAlgorithm;
-            }
+                    // Test significance
+                    boolean significant = true;
+                    if (secondAlgorithm != null) {
+                        double[] first = values.get(getKey(scriteria, dataset, firstAlgorithm, _setting)).getValues();
+                        double[] second = values.get(getKey(scriteria, dataset, secondAlgorithm, _setting)).getValues();
+                        significant = getPValue(first, second, lowerIsBetter) < ALPHA;
+                    }
+
+                    // Render and store
+                    final NumberFormat df = new DecimalFormat("#");
+                    line[i] = firstAlgorithm + " (" + df.format(difference) + "%) " + secondAlgorithm + (significant ? "" : " n.s.");
+
+                    // Confidence intervals and comparisons with the best algorithm
+                    for (String algorithm : algorithms) {
+                        Accumulator accumulator = values.get(getKey(scriteria, dataset, algorithm, _setting));
+                        if (accumulator == null) {
+                            continue;
+                        }
+                        double[] sample = accumulator.getValues();
+                        double[] interval = BOOTSTRAP.getConfidenceInterval(sample);
+                        String pValue = "";
+                        if (!algorithm.equals(firstAlgorithm)) {
+                            double[] first = values.get(getKey(scriteria, dataset, firstAlgorithm, _setting)).getValues();
+                            pValue = String.valueOf(getPValue(first, sample, lowerIsBetter));
+                        }
+                        List<String> _line = new ArrayList<String>();
+                        _line.add(scriteria);
+                        _line.addAll(_setting);
+                        _line.addAll(Arrays.asList(dataset,
+                                                   algorithm,
+                                                   String.valueOf(accumulator.get(Aggregate.ARITHMETIC_MEAN)),
+                                                   String.valueOf(interval[0]),
+                                                   String.valueOf(interval[1]),
+                                                   pValue));
+                        intervals.addLine(_line.toArray(new String[_line.size()]));
+                    }
+                }
             
-            // Add line
-            csv.addLine(line);
+                // Add line
+                csv.addLine(line);
+            }
         }
         
         // Write to file
-        csv.write(new File("results/table_"+variable.toLowerCase().replaceAll(" ", "_")+".csv"));
+        csv.write(output);
+        intervals.write(bootstrap);
+        state.setRendered(output.getPath(), hash);
     }
 
     /**
      * Generate the tables
+     * @param state
+     * @param analyzer
+     * @param setting
      * @throws IOException 
      * @throws ParseException 
      */
-    private static void generateTables() throws IOException, ParseException {
+    private static void generateTables(AnalysisState state, String analyzer, String[] setting) throws IOException, ParseException {
 
-        CSVFile file = new CSVFile(new File("results/results.csv"));
-        
         // For each variable
-        generateTable(file, VARIABLES[0], true);
-        generateTable(file, VARIABLES[1], false);
-        generateTable(file, VARIABLES[2], true);
+        generateTable(state, analyzer, setting, VARIABLES[0], true);
+        generateTable(state, analyzer, setting, VARIABLES[1], false);
+        generateTable(state, analyzer, setting, VARIABLES[2], true);
+    }
+
+    /**
+     * Returns the dimensions which identify a configuration in the quality-vs-cost comparison
+     * @param header
+     * @return
+     */
+    private static String[] getConfiguration(ResultsCube header) {
+        List<String> result = new ArrayList<String>();
+        result.add("Dataset");
+        result.add("Criteria");
+        result.addAll(Arrays.asList(getSetting(header)));
+        result.add("Algorithm");
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * Returns the dimensions by which the values of the tables are grouped: criteria, dataset,
+     * algorithm and the setting. Only repetitions are pooled.
+     * @param setting
+     * @return
+     */
+    private static String[] getGrouping(String[] setting) {
+        String[] result = new String[setting.length + 3];
+        result[0] = "Criteria";
+        result[1] = "Dataset";
+        result[2] = "Algorithm";
+        System.arraycopy(setting, 0, result, 3, setting.length);
+        return result;
+    }
+
+    /**
+     * Returns the key of a group in the tables
+     * @param criteria
+     * @param dataset
+     * @param algorithm
+     * @param setting
+     * @return
+     */
+    private static List<String> getKey(String criteria, String dataset, String algorithm, List<String> setting) {
+        List<String> result = new ArrayList<String>();
+        result.add(criteria);
+        result.add(dataset);
+        result.add(algorithm);
+        result.addAll(setting);
+        return result;
+    }
+
+    /**
+     * Returns the dimensions of the setting in which algorithms are compared. Values are only
+     * comparable for the same metric, suppression limit, bounding of the lattice, order of
+     * successors, caching of verdicts and settings of the history, which have not been recorded
+     * by older versions of the benchmark.
+     * @param header
+     * @return
+     */
+    private static String[] getSetting(ResultsCube header) {
+        List<String> result = new ArrayList<String>();
+        for (String dimension : new String[] { "Metric", "Suppression", "Bounding", "Successor ordering", "Verdict cache", "History" }) {
+            if (header.hasDimension(dimension)) {
+                result.add(dimension);
+            }
+        }
+        return result.toArray(new String[result.size()]);
     }
 
     /**
      * Returns a plot group
-     * @param file
+     * @param groups
+     * @param variable
      * @param focus
      * @return
      * @throws ParseException 
      */
-    private static PlotGroup getGroup(CSVFile file, String variable, String focus) throws ParseException {
+    private static PlotGroup getGroup(Map<List<String>, Accumulator> groups, String variable, String focus) throws ParseException {
 
         // Prepare
         List<Plot<?>> plots = new ArrayList<Plot<?>>();
@@ -216,7 +567,7 @@ public class BenchmarkAnalysis {
         // Collect data for all algorithms
         for (BenchmarkAlgorithm algorithm : BenchmarkSetup.getAlgorithms()) {
 
-            Series3D _series = getSeries(file, algorithm.toString(), variable, focus);
+            Series3D _series = getSeries(groups, algorithm.toString(), variable, focus);
             if (series == null) series = _series;
             else series.append(_series);
         }
@@ -301,20 +652,147 @@ public class BenchmarkAnalysis {
     }
 
     /**
-     * Returns a series
+     * Returns the arithmetic mean of the given group, or NaN if there is no such group.
+     * Collects the accumulator.
+     * @param groups
+     * @param key
+     * @param accumulators
+     * @return
+     */
+    private static double getMean(Map<List<String>, Accumulator> groups, List<String> key, List<Accumulator> accumulators) {
+        Accumulator accumulator = groups.get(key);
+        accumulators.add(accumulator);
+        return accumulator == null ? Double.NaN : accumulator.get(Aggregate.ARITHMETIC_MEAN);
+    }
+
+    /**
+     * Returns a plot group with the Pareto frontiers of information loss and execution time as
+     * well as information loss and number of checks
+     * @param context
+     * @param loss
+     * @param time
+     * @param check
+     * @param frontierByTime
+     * @param frontierByChecks
+     * @return
+     * @throws ParseException
+     */
+    private static PlotGroup getParetoGroup(List<String> context,
+                                            double[] loss,
+                                            double[] time,
+                                            double[] check,
+                                            boolean[] frontierByTime,
+                                            boolean[] frontierByChecks) throws ParseException {
+
+        // Transform execution times from nanos to seconds
+        double[] seconds = new double[time.length];
+        for (int i = 0; i < time.length; i++) {
+            seconds[i] = time[i] / 1000000000d;
+        }
+
+        // Create plots
+        List<Plot<?>> plots = new ArrayList<Plot<?>>();
+        plots.add(new PlotLinesClustered("",
+                                         new Labels("Execution time [s]", UTILITY),
+                                         getParetoSeries(loss, seconds, frontierByTime)));
+        plots.add(new PlotLinesClustered("",
+                                         new Labels(VARIABLES[0], UTILITY),
+                                         getParetoSeries(loss, check, frontierByChecks)));
+
+        // Define params
+        GnuPlotParams params = new GnuPlotParams();
+        params.rotateXTicks = 0;
+        params.categorialX = false;
+        params.logX = true;
+        params.size = 1.0d;
+        params.keypos = KeyPos.TOP_RIGHT;
+
+        // Return
+        return new PlotGroup("Pareto frontiers for " + context, plots, params, 1.0d);
+    }
+
+    /**
+     * Returns a series containing the configurations on the frontier, ordered by costs
+     * @param loss
+     * @param costs
+     * @param frontier
+     * @return
+     * @throws ParseException
+     */
+    private static Series3D getParetoSeries(final double[] loss,
+                                            final double[] costs,
+                                            boolean[] frontier) throws ParseException {
+
+        // Order by costs
+        List<Integer> indices = new ArrayList<Integer>();
+        for (int i = 0; i < frontier.length; i++) {
+            if (frontier[i]) {
+                indices.add(i);
+            }
+        }
+        Collections.sort(indices, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(costs[o1], costs[o2]);
+            }
+        });
+
+        // Store
+        String label = "Pareto frontier";
+        CSVFile file = new CSVFile(new String[] { "", "", UTILITY },
+                                   new String[] { "Costs", "Series", Aggregate.ARITHMETIC_MEAN.getLabel() });
+        for (int index : indices) {
+            file.addLine(new String[] { String.valueOf(costs[index]),
+                                        label,
+                                        String.valueOf(loss[index]) });
+        }
+        Selector<String[]> selector = file.getSelectorBuilder()
+                                          .field("Series").equals(label)
+                                          .build();
+
+        // Create series
+        return new Series3D(file, selector,
+                            new Field("Costs"),
+                            new Field("Series"),
+                            new Field(UTILITY, Aggregate.ARITHMETIC_MEAN.getLabel()));
+    }
+
+    /**
+     * Returns the p-value for the hypothesis that the first sample is better than the second sample
+     * @param first
+     * @param second
+     * @param lowerIsBetter
+     * @return
+     */
+    private static double getPValue(double[] first, double[] second, boolean lowerIsBetter) {
+        return lowerIsBetter ? BOOTSTRAP.getPValue(first, second) : BOOTSTRAP.getPValue(second, first);
+    }
+
+    /**
+     * Returns a series containing the geometric mean of the variable for each value of the focus
      * 
-     * @param file
+     * @param groups
      * @param algorithm
+     * @param variable
      * @param focus
      * @return
      * @throws ParseException
      */
-    private static Series3D getSeries(CSVFile file,
+    private static Series3D getSeries(Map<List<String>, Accumulator> groups,
                                       String algorithm,
                                       String variable,
                                       String focus) throws ParseException {
 
-        // Select data for the given algorithm
+        // Store aggregates for the given algorithm
+        CSVFile file = new CSVFile(new String[] { "", "", variable },
+                                   new String[] { focus, "Algorithm", Aggregate.GEOMETRIC_MEAN.getLabel() });
+        for (Map.Entry<List<String>, Accumulator> entry : groups.entrySet()) {
+            if (entry.getKey().get(1).equals(algorithm)) {
+                file.addLine(new String[] { entry.getKey().get(0),
+                                            entry.getKey().get(1),
+                                            String.valueOf(entry.getValue().get(Aggregate.GEOMETRIC_MEAN)) });
+            }
+        }
         Selector<String[]> selector = file.getSelectorBuilder()
                                           .field("Algorithm").equals(algorithm)
                                           .build();
@@ -323,8 +801,7 @@ public class BenchmarkAnalysis {
         Series3D series = new Series3D(file, selector, 
                                        new Field(focus),
                                        new Field("Algorithm"),
-                                       new Field(variable, Analyzer.ARITHMETIC_MEAN),
-                                       new BufferedGeometricMeanAnalyzer());
+                                       new Field(variable, Aggregate.GEOMETRIC_MEAN.getLabel()));
         
         return series;
     }
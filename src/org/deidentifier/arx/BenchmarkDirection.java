@@ -0,0 +1,122 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm.SearchDirection;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Compares the directions in which the heuristic algorithms search the lattice. Each
+ * configuration is searched bottom-up and, if all criteria are monotonic without suppression,
+ * also top-down and bidirectionally, as returned by <code>BenchmarkSetup.getSearchDirections()</code>.
+ * The results are written to "results/direction.csv".
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkDirection {
+
+    /** The benchmark instance */
+    private static final Benchmark            BENCHMARK        = new Benchmark(new String[] { "Algorithm", "Dataset", "Criteria", "Metric", "Suppression", "Direction" });
+    /** Label for execution time */
+    public static final int                   EXECUTION_TIME   = BENCHMARK.addMeasure("Execution time");
+    /** Label for the number of checks */
+    public static final int                   NUMBER_OF_CHECKS = BENCHMARK.addMeasure("Number of checks");
+    /** Label for the number of checks performed while searching top-down */
+    public static final int                   CHECKS_TOP_DOWN  = BENCHMARK.addMeasure("Checks top-down");
+    /** Label for the number of checks performed while searching bottom-up */
+    public static final int                   CHECKS_BOTTOM_UP = BENCHMARK.addMeasure("Checks bottom-up");
+    /** Label for information loss */
+    public static final int                   INFORMATION_LOSS = BENCHMARK.addMeasure("Information loss");
+
+    /** The algorithms which support all directions */
+    private static final BenchmarkAlgorithm[] ALGORITHMS       = { BenchmarkAlgorithm.HEURAKLES,
+                                                                   BenchmarkAlgorithm.DATAFLY,
+                                                                   BenchmarkAlgorithm.IMPROVED_GREEDY };
+
+    static {
+        BENCHMARK.addAnalyzer(EXECUTION_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(NUMBER_OF_CHECKS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(CHECKS_TOP_DOWN, new ValueBuffer());
+        BENCHMARK.addAnalyzer(CHECKS_BOTTOM_UP, new ValueBuffer());
+        BENCHMARK.addAnalyzer(INFORMATION_LOSS, new ValueBuffer());
+    }
+
+    /**
+     * Main entry point
+     * 
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        BenchmarkDriver driver = new BenchmarkDriver(BENCHMARK);
+
+        // For each combination of criteria
+        for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+
+            // For each dataset
+            for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+
+                // For each metric
+                for (BenchmarkMetric metric : BenchmarkSetup.getMetrics()) {
+
+                    // For each suppression
+                    for (double suppression : BenchmarkSetup.getSuppressionValues()) {
+
+                        // For each algorithm
+                        for (BenchmarkAlgorithm algorithm : ALGORITHMS) {
+
+                            // Learn the order in which criteria are evaluated
+                            driver.warmUp(criteria, dataset, metric, suppression, algorithm);
+
+                            // For each direction
+                            for (SearchDirection direction : BenchmarkSetup.getSearchDirections(criteria, suppression)) {
+
+                                // Print status info
+                                System.out.println("Running: " + algorithm.toString() + " / " + dataset.toString() + " / " +
+                                                   Arrays.toString(criteria) + " / " + direction.toString());
+
+                                // Benchmark
+                                BENCHMARK.addRun(algorithm.toString(), dataset.toString(), Arrays.toString(criteria), metric.toString(), String.valueOf(suppression), direction.toString());
+
+                                driver.anonymizeDirection(criteria, dataset, metric, suppression, algorithm, direction);
+
+                                // Write results incrementally
+                                BENCHMARK.getResults().write(new File("results/direction.csv"));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -20,22 +20,49 @@
 
 package org.deidentifier.arx;
 
+import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
 import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm;
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm.SearchDirection;
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm.SuccessorOrdering;
+import org.deidentifier.arx.algorithm.AbstractParallelBenchmarkAlgorithm;
+import org.deidentifier.arx.algorithm.AlgorithmBeamSearch;
 import org.deidentifier.arx.algorithm.AlgorithmDataFly;
+import org.deidentifier.arx.algorithm.AlgorithmExhaustive;
 import org.deidentifier.arx.algorithm.AlgorithmHeurakles;
 import org.deidentifier.arx.algorithm.AlgorithmImprovedGreedy;
+import org.deidentifier.arx.algorithm.AlgorithmLocalSearch;
+import org.deidentifier.arx.algorithm.AlgorithmPortfolio;
+import org.deidentifier.arx.algorithm.HistoryStatistics;
+import org.deidentifier.arx.algorithm.LatticeBounds;
+import org.deidentifier.arx.algorithm.SharedOptimum;
+import org.deidentifier.arx.algorithm.TraceReader;
+import org.deidentifier.arx.algorithm.TraceWriter;
+import org.deidentifier.arx.algorithm.TraversalAbortedException;
+import org.deidentifier.arx.criteria.ClassVerdictCache;
+import org.deidentifier.arx.criteria.CriterionProfile;
+import org.deidentifier.arx.criteria.RiskEstimateCache;
 import org.deidentifier.arx.framework.check.INodeChecker;
 import org.deidentifier.arx.framework.check.NodeChecker;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.Dictionary;
 import org.deidentifier.arx.framework.lattice.AbstractLattice;
 import org.deidentifier.arx.framework.lattice.LatticeBuilder;
+import org.deidentifier.arx.framework.lattice.Node;
+import org.deidentifier.arx.metric.InformationLoss;
 
 import de.linearbits.subframe.Benchmark;
 
@@ -45,18 +72,39 @@ import de.linearbits.subframe.Benchmark;
  */
 public class BenchmarkDriver {
 
-    /** Snapshot size. */
-    private final double    snapshotSizeDataset  = 0.2d;
+    /** History settings overriding the profile of the dataset, may be null */
+    private HistorySettings history;
 
-    /** Snapshot size snapshot */
-    private final double    snapshotSizeSnapshot = 0.8d;
+    /** The direction of the search */
+    private SearchDirection   direction = SearchDirection.BOTTOM_UP;
 
-    /** History size. */
-    private final int       historySize          = 200;
+    /** The order in which successors are checked */
+    private SuccessorOrdering ordering  = SuccessorOrdering.DEFAULT;
+
+    /** The number of verdicts of t-closeness cached per distribution, 0 if disabled */
+    private int               verdictCacheSize;
 
     /** The benchmark instance */
     private final Benchmark benchmark;
 
+    /** Whether the lattice is bounded before the search */
+    private boolean         bounding;
+
+    /** The number of checks performed for bounding the last lattice */
+    private int             boundingChecks;
+
+    /** The relative reduction of the size of the last lattice by bounding */
+    private double          boundingReduction;
+
+    /** The time required for bounding the last lattice in nanoseconds */
+    private long            boundingTime;
+
+    /** The information loss of the optimum for each configuration, determined by exhaustive search */
+    private final Map<String, String> optima = new HashMap<String, String>();
+
+    /** The watchdog aborting runs which exceed the timeout or the heap limit */
+    private final BenchmarkWatchdog   watchdog = new BenchmarkWatchdog(BenchmarkSetup.getTimeout(), BenchmarkSetup.getHeapLimit());
+
     /**
      * Creates a new benchmark driver
      * 
@@ -74,22 +122,568 @@ public class BenchmarkDriver {
      * @param metric
      * @param suppression
      * @param algorithm
+     * @param bounding Whether the lattice is bounded before the search
+     * @param ordering The order in which successors are checked
+     * @param verdictCacheSize The number of verdicts of t-closeness cached, 0 disables the cache
      * @throws IOException
      */
     public void anonymize(BenchmarkCriterion[] criteria,
                           BenchmarkDataset dataset,
                           BenchmarkMetric metric,
                           double suppression,
-                          BenchmarkAlgorithm algorithm) throws IOException {
+                          BenchmarkAlgorithm algorithm,
+                          boolean bounding,
+                          SuccessorOrdering ordering,
+                          int verdictCacheSize) throws IOException {
+
+        // Unless shared, each run starts with an empty risk cache
+        if (!BenchmarkSetup.isRiskCacheShared()) {
+            RiskEstimateCache.getInstance().clear();
+        }
 
         // Build implementation
+        this.bounding = bounding;
+        this.ordering = ordering;
+        this.verdictCacheSize = verdictCacheSize;
+        AbstractBenchmarkAlgorithm implementation;
+        try {
+            implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+        } finally {
+            this.bounding = false;
+            this.ordering = SuccessorOrdering.DEFAULT;
+            this.verdictCacheSize = 0;
+        }
+
+        // Statistics of the shared risk cache
+        RiskEstimateCache cache = RiskEstimateCache.getInstance();
+        long hits = cache.getNumHits();
+        long misses = cache.getNumMisses();
+        long saved = cache.getTimeSaved();
+
+        // Statistics of the verdict caches
+        long verdictHits = ClassVerdictCache.getNumHits();
+        long verdictMisses = ClassVerdictCache.getNumMisses();
+
+        // Statistics of the shared criterion profile
+        CriterionProfile profile = CriterionProfile.getInstance();
+        profile.flush();
+        long skipped = profile.getNumSkipped();
+
+        // Execute, aborting runs which exceed the timeout or the heap limit
+        List<MemoryPoolMXBean> pools = resetPeakHeap();
+        BenchmarkMonitor.getInstance().begin(algorithm + " / " + dataset + " / " + Arrays.toString(criteria) + " / " +
+                                             metric + " / " + suppression, implementation);
+        watchdog.start(implementation);
+        String failure = null;
+        long time = System.nanoTime();
+        try {
+            implementation.traverse();
+            benchmark.addValue(BenchmarkMain.EXECUTION_TIME, boundingTime + System.nanoTime() - time);
+        } catch (OutOfMemoryError e) {
+            failure = BenchmarkWatchdog.OUT_OF_MEMORY;
+        } catch (RuntimeException e) {
+            failure = getFailure(e);
+        } finally {
+            watchdog.stop();
+            BenchmarkMonitor.getInstance().end();
+        }
+        if (failure != null) {
+            System.out.println(" - Aborted: " + failure);
+            benchmark.addValue(BenchmarkMain.EXECUTION_TIME, failure);
+        }
+        benchmark.addValue(BenchmarkMain.PEAK_HEAP, getPeakHeap(pools));
+        benchmark.addValue(BenchmarkMain.NUMBER_OF_CHECKS, implementation.getNumChecks());
+        benchmark.addValue(BenchmarkMain.NUMBER_OF_ROLLUPS, implementation.getNumRollups());
+
+        // Store optimum
+        String loss = failure != null ? failure : getInformationLoss(metric, algorithm, implementation, criteria, dataset, suppression);
+        benchmark.addValue(BenchmarkMain.INFORMATION_LOSS, loss);
+
+        // Store statistics
+        benchmark.addValue(BenchmarkMain.RISK_CACHE_HITS, cache.getNumHits() - hits);
+        benchmark.addValue(BenchmarkMain.RISK_CACHE_MISSES, cache.getNumMisses() - misses);
+        benchmark.addValue(BenchmarkMain.RISK_CACHE_TIME_SAVED, cache.getTimeSaved() - saved);
+        benchmark.addValue(BenchmarkMain.VERDICT_CACHE_HITS, ClassVerdictCache.getNumHits() - verdictHits);
+        benchmark.addValue(BenchmarkMain.VERDICT_CACHE_MISSES, ClassVerdictCache.getNumMisses() - verdictMisses);
+        profile.flush();
+        benchmark.addValue(BenchmarkMain.SKIPPED_EVALUATIONS, profile.getNumSkipped() - skipped);
+        benchmark.addValue(BenchmarkMain.BOUNDING_CHECKS, boundingChecks);
+        benchmark.addValue(BenchmarkMain.BOUNDING_TIME, boundingTime);
+        benchmark.addValue(BenchmarkMain.SEARCH_SPACE_REDUCTION, boundingReduction);
+
+        // Store statistics of the history
+        HistorySettings settings = getHistorySettings(dataset);
+        HistoryStatistics history = implementation.getHistoryStatistics();
+        benchmark.addValue(BenchmarkMain.SNAPSHOT_HITS, history.getNumHits());
+        benchmark.addValue(BenchmarkMain.SNAPSHOT_MISSES, history.getNumMisses());
+        benchmark.addValue(BenchmarkMain.SNAPSHOT_HIT_RATE, history.getHitRate());
+        benchmark.addValue(BenchmarkMain.SNAPSHOTS_REQUESTED, history.getNumRequested());
+        benchmark.addValue(BenchmarkMain.SNAPSHOTS_DROPPED, history.getNumDropped());
+        benchmark.addValue(BenchmarkMain.HISTORY_PEAK_SIZE, history.getPeakSize());
+        benchmark.addValue(BenchmarkMain.HISTORY_UTILIZATION, (double) history.getPeakSize() / (double) settings.getHistorySize());
+        benchmark.addValue(BenchmarkMain.SNAPSHOT_MEMORY, history.getSnapshotMemory());
+
+        // Store optimality gap
+        if (failure != null) {
+            benchmark.addValue(BenchmarkMain.OPTIMALITY_GAP, failure);
+        } else if (Arrays.asList(BenchmarkSetup.getOptimalityGapDatasets()).contains(dataset)) {
+            benchmark.addValue(BenchmarkMain.OPTIMALITY_GAP, getOptimalityGap(loss, getOptimum(criteria, dataset, metric, suppression)));
+        } else {
+            benchmark.addValue(BenchmarkMain.OPTIMALITY_GAP, "NotDetermined");
+        }
+    }
+
+    /**
+     * Resets the shared criterion profile and warms it up with a run of the given configuration,
+     * which is not recorded. All subsequent runs evaluate the criteria in the order learned from
+     * this configuration, instead of an order depending on previous configurations.
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @throws IOException
+     */
+    public void warmUp(BenchmarkCriterion[] criteria,
+                       BenchmarkDataset dataset,
+                       BenchmarkMetric metric,
+                       double suppression,
+                       BenchmarkAlgorithm algorithm) throws IOException {
+
+        CriterionProfile profile = CriterionProfile.getInstance();
+        profile.reset();
         AbstractBenchmarkAlgorithm implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+        watchdog.start(implementation);
+        try {
+            implementation.traverse();
+        } catch (OutOfMemoryError e) {
+            // Aborted runs still provide statistics
+        } catch (RuntimeException e) {
+            // Rethrows all exceptions other than aborts
+            getFailure(e);
+        } finally {
+            watchdog.stop();
+            profile.flush();
+        }
+    }
+
+    /**
+     * Performs data anonymization searching in the given direction
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @param direction
+     * @throws IOException
+     */
+    public void anonymizeDirection(BenchmarkCriterion[] criteria,
+                                   BenchmarkDataset dataset,
+                                   BenchmarkMetric metric,
+                                   double suppression,
+                                   BenchmarkAlgorithm algorithm,
+                                   SearchDirection direction) throws IOException {
+
+        // Build implementation
+        this.direction = direction;
+        AbstractBenchmarkAlgorithm implementation;
+        try {
+            implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+        } finally {
+            this.direction = SearchDirection.BOTTOM_UP;
+        }
 
         // Execute
+        benchmark.startTimer(BenchmarkDirection.EXECUTION_TIME);
         implementation.traverse();
-        // Store optimum
-        benchmark.addValue(BenchmarkMain.INFORMATION_LOSS,
-                           getInformationLoss(metric, algorithm, implementation, criteria, dataset, suppression));
+        benchmark.addStopTimer(BenchmarkDirection.EXECUTION_TIME);
+        CriterionProfile.getInstance().flush();
+
+        // Store
+        benchmark.addValue(BenchmarkDirection.NUMBER_OF_CHECKS, implementation.getNumChecks());
+        benchmark.addValue(BenchmarkDirection.CHECKS_TOP_DOWN, implementation.getNumChecksTopDown());
+        benchmark.addValue(BenchmarkDirection.CHECKS_BOTTOM_UP, implementation.getNumChecksBottomUp());
+        benchmark.addValue(BenchmarkDirection.INFORMATION_LOSS, getInformationLoss(metric, algorithm, implementation, criteria, dataset, suppression));
+    }
+
+    /**
+     * Performs data anonymization with an algorithm which checks nodes in parallel
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @throws IOException
+     */
+    public void anonymizeParallel(BenchmarkCriterion[] criteria,
+                                  BenchmarkDataset dataset,
+                                  BenchmarkMetric metric,
+                                  double suppression,
+                                  BenchmarkAlgorithm algorithm) throws IOException {
+
+        // Build implementation
+        AbstractBenchmarkAlgorithm implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+
+        // Execute
+        benchmark.startTimer(BenchmarkParallel.EXECUTION_TIME);
+        implementation.traverse();
+        benchmark.addStopTimer(BenchmarkParallel.EXECUTION_TIME);
+        CriterionProfile.getInstance().flush();
+
+        // Store
+        benchmark.addValue(BenchmarkParallel.NUMBER_OF_CHECKS, implementation.getNumChecks());
+        benchmark.addValue(BenchmarkParallel.INFORMATION_LOSS, getInformationLoss(metric, algorithm, implementation, criteria, dataset, suppression));
+    }
+
+    /**
+     * Performs data anonymization with the given history settings instead of the profile of the
+     * dataset and returns the execution time in milliseconds, the number of checks and the peak
+     * heap usage in bytes
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @param settings
+     * @return
+     * @throws IOException
+     */
+    public long[] anonymizeHistory(BenchmarkCriterion[] criteria,
+                                   BenchmarkDataset dataset,
+                                   BenchmarkMetric metric,
+                                   double suppression,
+                                   BenchmarkAlgorithm algorithm,
+                                   HistorySettings settings) throws IOException {
+
+        // Build implementation
+        this.history = settings;
+        AbstractBenchmarkAlgorithm implementation;
+        try {
+            implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+        } finally {
+            this.history = null;
+        }
+
+        // Execute
+        List<MemoryPoolMXBean> pools = resetPeakHeap();
+        long time = System.currentTimeMillis();
+        implementation.traverse();
+        time = System.currentTimeMillis() - time;
+        long heap = getPeakHeap(pools);
+        CriterionProfile.getInstance().flush();
+
+        // Store
+        benchmark.addValue(BenchmarkHistory.EXECUTION_TIME, time);
+        benchmark.addValue(BenchmarkHistory.NUMBER_OF_CHECKS, implementation.getNumChecks());
+        benchmark.addValue(BenchmarkHistory.PEAK_HEAP, heap);
+        benchmark.addValue(BenchmarkHistory.SNAPSHOT_HITS, implementation.getHistoryStatistics().getNumHits());
+        return new long[] { time, implementation.getNumChecks(), heap };
+    }
+
+    /**
+     * Performs data anonymization and writes all checks to a trace file. Returns the number
+     * of checks recorded.
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public long recordTrace(BenchmarkCriterion[] criteria,
+                            BenchmarkDataset dataset,
+                            BenchmarkMetric metric,
+                            double suppression,
+                            BenchmarkAlgorithm algorithm,
+                            File file) throws IOException {
+
+        // Build implementation
+        AbstractBenchmarkAlgorithm implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+
+        // Execute
+        TraceWriter trace = new TraceWriter(file, implementation.getNumQuasiIdentifiers());
+        try {
+            implementation.setTrace(trace);
+            implementation.traverse();
+        } finally {
+            trace.close();
+            CriterionProfile.getInstance().flush();
+        }
+        return trace.getNumRecords();
+    }
+
+    /**
+     * Replays a trace recorded with <code>recordTrace()</code> against the checker used by the
+     * given algorithm, configured with the given history settings
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @param settings
+     * @param file
+     * @throws IOException
+     */
+    public void replayTrace(BenchmarkCriterion[] criteria,
+                            BenchmarkDataset dataset,
+                            BenchmarkMetric metric,
+                            double suppression,
+                            BenchmarkAlgorithm algorithm,
+                            HistorySettings settings,
+                            File file) throws IOException {
+
+        // Build implementation
+        this.history = settings;
+        AbstractBenchmarkAlgorithm implementation;
+        try {
+            implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+        } finally {
+            this.history = null;
+        }
+
+        // Execute
+        TraceReader trace = new TraceReader(file);
+        long[] result;
+        try {
+            result = implementation.replay(trace);
+        } finally {
+            trace.close();
+            CriterionProfile.getInstance().flush();
+        }
+
+        // Store
+        HistoryStatistics history = implementation.getHistoryStatistics();
+        benchmark.addValue(BenchmarkReplay.NUMBER_OF_CHECKS, implementation.getNumChecks());
+        benchmark.addValue(BenchmarkReplay.MISMATCHES, result[0]);
+        benchmark.addValue(BenchmarkReplay.RECORDED_TIME, result[1]);
+        benchmark.addValue(BenchmarkReplay.EXECUTION_TIME, result[2]);
+        benchmark.addValue(BenchmarkReplay.SNAPSHOT_HITS, history.getNumHits());
+        benchmark.addValue(BenchmarkReplay.SNAPSHOT_HIT_RATE, history.getHitRate());
+    }
+
+    /**
+     * Performs data anonymization with a portfolio of all algorithms and their stepping
+     * variants, which are executed concurrently
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param threads
+     * @throws IOException
+     */
+    public void anonymizePortfolio(BenchmarkCriterion[] criteria,
+                                   BenchmarkDataset dataset,
+                                   BenchmarkMetric metric,
+                                   double suppression,
+                                   int threads) throws IOException {
+
+        // Build portfolio. Algorithms of the same type share a decision metric and an optimum.
+        AlgorithmPortfolio portfolio = new AlgorithmPortfolio();
+        List<BenchmarkAlgorithm> algorithms = new ArrayList<BenchmarkAlgorithm>();
+        algorithms.addAll(Arrays.asList(BenchmarkSetup.getAlgorithms()));
+        algorithms.addAll(Arrays.asList(BenchmarkSetup.getParallelAlgorithms()));
+        for (BenchmarkAlgorithm algorithm : algorithms) {
+            SharedOptimum shared = new SharedOptimum();
+            for (int stepping : BenchmarkSetup.getPortfolioSteppings()) {
+                if (stepping != 0 && (algorithm == BenchmarkAlgorithm.BEAM_SEARCH || algorithm == BenchmarkAlgorithm.LOCAL_SEARCH)) {
+                    continue;
+                }
+                AbstractBenchmarkAlgorithm implementation = getImplementation(criteria, dataset, metric, suppression, algorithm, true);
+                implementation.setSharedOptimum(shared);
+                if (stepping != 0) {
+                    implementation.setStepping(stepping);
+                }
+                portfolio.add(algorithm.toString() + (stepping != 0 ? "/" + stepping : ""), implementation);
+            }
+        }
+
+        // Execute
+        portfolio.traverse(threads);
+        CriterionProfile.getInstance().flush();
+
+        // Evaluate solutions with the benchmark metric
+        AbstractBenchmarkAlgorithm evaluator = getImplementation(criteria, dataset, metric, suppression, BenchmarkAlgorithm.HEURAKLES, false);
+        int best = -1;
+        InformationLoss<?> bestLoss = null;
+        for (int i = 0; i < portfolio.getNumMembers(); i++) {
+            if (portfolio.getOptimum(i) != null) {
+                InformationLoss<?> loss = evaluator.getInformationLoss(portfolio.getOptimum(i));
+                if (best == -1 || loss.compareTo(bestLoss) < 0 ||
+                    (loss.compareTo(bestLoss) == 0 && portfolio.getTime(i) < portfolio.getTime(best))) {
+                    best = i;
+                    bestLoss = loss;
+                }
+            }
+        }
+
+        // Store
+        int first = portfolio.getFirst();
+        if (first == -1) {
+            benchmark.addValue(BenchmarkPortfolio.FIRST_STRATEGY, "NoSolutionFound");
+            benchmark.addValue(BenchmarkPortfolio.FIRST_TIME, "NoSolutionFound");
+            benchmark.addValue(BenchmarkPortfolio.BEST_STRATEGY, "NoSolutionFound");
+            benchmark.addValue(BenchmarkPortfolio.BEST_TIME, "NoSolutionFound");
+            benchmark.addValue(BenchmarkPortfolio.INFORMATION_LOSS, "NoSolutionFound");
+        } else {
+            benchmark.addValue(BenchmarkPortfolio.FIRST_STRATEGY, portfolio.getName(first));
+            benchmark.addValue(BenchmarkPortfolio.FIRST_TIME, portfolio.getTimeFirstSolution(first) / 1000000L);
+            benchmark.addValue(BenchmarkPortfolio.BEST_STRATEGY, portfolio.getName(best));
+            benchmark.addValue(BenchmarkPortfolio.BEST_TIME, portfolio.getTime(best) / 1000000L);
+            benchmark.addValue(BenchmarkPortfolio.INFORMATION_LOSS, bestLoss.toString());
+        }
+    }
+
+    /**
+     * Checks all transformations concurrently with the checkers of the parallel algorithms and
+     * sequentially with a single checker, and returns the number of transformations for which
+     * the verdicts differ
+     * 
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @return
+     * @throws IOException
+     */
+    public int getNumInconsistentVerdicts(BenchmarkCriterion[] criteria,
+                                          BenchmarkDataset dataset,
+                                          BenchmarkMetric metric,
+                                          double suppression) throws IOException {
+        AbstractParallelBenchmarkAlgorithm implementation = (AbstractParallelBenchmarkAlgorithm) getImplementation(criteria, dataset, metric, suppression, BenchmarkAlgorithm.EXHAUSTIVE, true);
+        try {
+            return implementation.getNumInconsistentVerdicts();
+        } finally {
+            CriterionProfile.getInstance().flush();
+        }
+    }
+
+    /**
+     * Checks all transformations of the given data with the framework and returns those which
+     * fulfill the given configuration. The attribute types must be defined by the data.
+     * 
+     * @param data
+     * @param config
+     * @return
+     */
+    public List<int[]> getAnonymousTransformations(Data data, ARXConfiguration config) {
+
+        // Encode
+        DataHandle handle = data.getHandle();
+        DataManager manager = new DataManager(((DataHandleInput) handle).header,
+                                              ((DataHandleInput) handle).data,
+                                              ((DataHandleInput) handle).dictionary,
+                                              data.getDefinition(),
+                                              config.getCriteria());
+        config.initialize(manager);
+
+        // Build lattice and checker
+        AbstractLattice lattice = new LatticeBuilder(manager.getMaxLevels(),
+                                                     manager.getMinLevels()).build();
+        HistorySettings settings = BenchmarkSetup.getDefaultHistorySettings();
+        INodeChecker checker = new NodeChecker(manager,
+                                               config.getMetric(),
+                                               config.getInternalConfiguration(),
+                                               settings.getHistorySize(),
+                                               settings.getSnapshotSizeDataset(),
+                                               settings.getSnapshotSizeSnapshot());
+        config.getMetric().initialize(handle.getDefinition(),
+                                      manager.getDataQI(),
+                                      manager.getHierarchies(),
+                                      config);
+
+        // Check
+        List<int[]> result = new ArrayList<int[]>();
+        for (Node[] level : lattice.getLevels()) {
+            for (Node node : level) {
+                if (checker.check(node).anonymous) {
+                    result.add(node.getTransformation().clone());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the reason for which a run has been aborted, if the exception has been caused by
+     * the watchdog or by a lack of memory. Rethrows all other exceptions.
+     * @param exception
+     * @return
+     */
+    private String getFailure(RuntimeException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TraversalAbortedException) {
+                return cause.getMessage();
+            } else if (cause instanceof OutOfMemoryError) {
+                return BenchmarkWatchdog.OUT_OF_MEMORY;
+            }
+        }
+        throw exception;
+    }
+
+    /**
+     * Returns the history settings for the given dataset
+     * @param dataset
+     * @return
+     * @throws IOException
+     */
+    private HistorySettings getHistorySettings(BenchmarkDataset dataset) throws IOException {
+        return history != null ? history : BenchmarkSetup.getHistorySettings(dataset);
+    }
+
+    /**
+     * Returns the information loss of the global optimum, which is determined by an exhaustive
+     * search once per configuration. Returns "Incomplete" if the search exceeded its limits.
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @return
+     * @throws IOException
+     */
+    private String getOptimum(BenchmarkCriterion[] criteria,
+                              BenchmarkDataset dataset,
+                              BenchmarkMetric metric,
+                              double suppression) throws IOException {
+
+        String key = Arrays.toString(criteria) + "/" + dataset + "/" + metric + "/" + suppression;
+        String optimum = optima.get(key);
+        if (optimum == null) {
+            AlgorithmExhaustive exhaustive = (AlgorithmExhaustive) getImplementation(criteria, dataset, metric, suppression, BenchmarkAlgorithm.EXHAUSTIVE, true);
+            exhaustive.traverse();
+            if (!exhaustive.isComplete()) {
+                optimum = "Incomplete";
+            } else {
+                optimum = getInformationLoss(metric, BenchmarkAlgorithm.EXHAUSTIVE, exhaustive, criteria, dataset, suppression);
+            }
+            optima.put(key, optimum);
+        }
+        return optimum;
+    }
+
+    /**
+     * Returns the relative gap between the information loss of a solution and the optimum
+     * @param loss
+     * @param optimum
+     * @return
+     */
+    private String getOptimalityGap(String loss, String optimum) {
+        try {
+            double _loss = Double.parseDouble(loss);
+            double _optimum = Double.parseDouble(optimum);
+            return String.valueOf(_optimum == 0d ? (_loss == 0d ? 0d : Double.POSITIVE_INFINITY) : (_loss - _optimum) / _optimum);
+        } catch (NumberFormatException e) {
+            // NoSolutionFound or Incomplete
+            return loss.equals(optimum) ? "0.0" : optimum.equals("Incomplete") ? optimum : "NoSolutionFound";
+        }
     }
 
     private String getInformationLoss(BenchmarkMetric metric,
@@ -101,7 +695,8 @@ public class BenchmarkDriver {
         if (null == implementation.getGlobalOptimum()) {
             return "NoSolutionFound";
         }
-        if (BenchmarkAlgorithm.HEURAKLES == algorithm) {
+        if (BenchmarkAlgorithm.HEURAKLES == algorithm || BenchmarkAlgorithm.BEAM_SEARCH == algorithm ||
+            BenchmarkAlgorithm.LOCAL_SEARCH == algorithm || BenchmarkAlgorithm.EXHAUSTIVE == algorithm) {
             return implementation.getGlobalOptimum().getInformationLoss().toString();
         }
         AbstractBenchmarkAlgorithm _algorithm = getImplementation(criteria, dataset, metric, suppression, algorithm, false);
@@ -109,6 +704,19 @@ public class BenchmarkDriver {
 
     }
 
+    /**
+     * Returns the sum of the peak usages of the given memory pools
+     * @param pools
+     * @return
+     */
+    private long getPeakHeap(List<MemoryPoolMXBean> pools) {
+        long heap = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            heap += pool.getPeakUsage().getUsed();
+        }
+        return heap;
+    }
+
     /**
      * @param dataset
      * @param criteria
@@ -123,7 +731,8 @@ public class BenchmarkDriver {
                                                          BenchmarkAlgorithm algorithm, boolean useDecisionMetric) throws IOException {
         // Prepare
         Data data = BenchmarkSetup.getData(dataset, criteria);
-        ARXConfiguration config = BenchmarkSetup.getConfiguration(criteria, dataset, metric, suppression, algorithm, useDecisionMetric);
+        ARXConfiguration config = BenchmarkSetup.getConfiguration(criteria, dataset, metric, suppression, algorithm, useDecisionMetric, verdictCacheSize);
+        HistorySettings settings = getHistorySettings(dataset);
         DataHandle handle = data.getHandle();
 
         // Encode
@@ -147,9 +756,9 @@ public class BenchmarkDriver {
         INodeChecker checker = new NodeChecker(manager,
                                                config.getMetric(),
                                                config.getInternalConfiguration(),
-                                               historySize,
-                                               snapshotSizeDataset,
-                                               snapshotSizeSnapshot);
+                                               settings.getHistorySize(),
+                                               settings.getSnapshotSizeDataset(),
+                                               settings.getSnapshotSizeSnapshot());
 
         // Initialize the metric
         config.getMetric().initialize(handle.getDefinition(),
@@ -157,6 +766,36 @@ public class BenchmarkDriver {
                                       manager.getHierarchies(),
                                       config);
 
+        // Bound the lattice
+        if (useDecisionMetric) {
+            boundingChecks = 0;
+            boundingReduction = 0d;
+            boundingTime = 0L;
+        }
+        if (useDecisionMetric && bounding &&
+            LatticeBounds.isApplicable(config.getCriteria(), config.getInternalConfiguration().getAbsoluteMaxOutliers())) {
+
+            long time = System.nanoTime();
+            LatticeBounds bounds = new LatticeBounds(lattice, checker);
+            int[] minLevels = bounds.getMinLevels(manager.getMinLevels());
+            boundingChecks = bounds.getNumChecks();
+
+            if (!Arrays.equals(minLevels, manager.getMinLevels())) {
+                int size = lattice.getSize();
+                lattice = new LatticeBuilder(manager.getMaxLevels(), minLevels).build();
+                boundingReduction = 1d - (double) lattice.getSize() / (double) size;
+            }
+            boundingTime = System.nanoTime() - time;
+
+            // The history of the checker is warm from the bounding checks
+            checker = new NodeChecker(manager,
+                                      config.getMetric(),
+                                      config.getInternalConfiguration(),
+                                      settings.getHistorySize(),
+                                      settings.getSnapshotSizeDataset(),
+                                      settings.getSnapshotSizeSnapshot());
+        }
+
         // Create an algorithm instance
         AbstractBenchmarkAlgorithm implementation;
 
@@ -170,10 +809,100 @@ public class BenchmarkDriver {
         case IMPROVED_GREEDY:
             implementation = new AlgorithmImprovedGreedy(lattice, checker);
             break;
+        case BEAM_SEARCH:
+            implementation = new AlgorithmBeamSearch(lattice,
+                                                     getCheckers(checker, manager, handle, criteria, dataset, metric, suppression, algorithm, useDecisionMetric, settings),
+                                                     BenchmarkSetup.getBeamWidth());
+            break;
+        case LOCAL_SEARCH:
+            implementation = new AlgorithmLocalSearch(lattice,
+                                                      getCheckers(checker, manager, handle, criteria, dataset, metric, suppression, algorithm, useDecisionMetric, settings),
+                                                      BenchmarkSetup.getLocalSearchRestarts(),
+                                                      BenchmarkSetup.getLocalSearchTabuSize(),
+                                                      BenchmarkSetup.getLocalSearchSeed());
+            break;
+        case EXHAUSTIVE:
+            implementation = new AlgorithmExhaustive(lattice,
+                                                     getCheckers(checker, manager, handle, criteria, dataset, metric, suppression, algorithm, useDecisionMetric, settings),
+                                                     BenchmarkSetup.getExhaustiveTimeLimit(),
+                                                     BenchmarkSetup.getExhaustiveMemoryBudget());
+            break;
         default:
             throw new RuntimeException("Invalid algorithm");
         }
+
+        // Override the storage strategy
+        if (settings.getStorageStrategy() != null) {
+            implementation.setStorageStrategy(settings.getStorageStrategy());
+        }
+
+        // Configure the order of successors
+        implementation.setSuccessorOrdering(ordering);
+
+        // Configure the direction of the search
+        implementation.setSearchDirection(direction,
+                                          LatticeBounds.isApplicable(config.getCriteria(), config.getInternalConfiguration().getAbsoluteMaxOutliers()));
         return implementation;
     }
 
+    /**
+     * Returns one checker per thread, the first of which is the given checker. Each checker
+     * uses its own configuration, including its own instances of the criteria and the metric,
+     * as criteria such as t-closeness keep working buffers and are not thread-safe.
+     * @param checker
+     * @param manager
+     * @param handle
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @param useDecisionMetric
+     * @param settings
+     * @return
+     * @throws IOException
+     */
+    private INodeChecker[] getCheckers(INodeChecker checker,
+                                       DataManager manager,
+                                       DataHandle handle,
+                                       BenchmarkCriterion[] criteria,
+                                       BenchmarkDataset dataset,
+                                       BenchmarkMetric metric,
+                                       double suppression,
+                                       BenchmarkAlgorithm algorithm,
+                                       boolean useDecisionMetric,
+                                       HistorySettings settings) throws IOException {
+
+        INodeChecker[] checkers = new INodeChecker[BenchmarkSetup.getNumThreads()];
+        checkers[0] = checker;
+        for (int i = 1; i < checkers.length; i++) {
+            ARXConfiguration config = BenchmarkSetup.getConfiguration(criteria, dataset, metric, suppression, algorithm, useDecisionMetric, verdictCacheSize);
+            config.initialize(manager);
+            config.getMetric().initialize(handle.getDefinition(), manager.getDataQI(), manager.getHierarchies(), config);
+            checkers[i] = new NodeChecker(manager,
+                                          config.getMetric(),
+                                          config.getInternalConfiguration(),
+                                          settings.getHistorySize(),
+                                          settings.getSnapshotSizeDataset(),
+                                          settings.getSnapshotSizeSnapshot());
+        }
+        return checkers;
+    }
+
+    /**
+     * Runs the garbage collector and resets the peak usages of all heap memory pools
+     * @return The pools
+     */
+    private List<MemoryPoolMXBean> resetPeakHeap() {
+        System.gc();
+        List<MemoryPoolMXBean> pools = new ArrayList<MemoryPoolMXBean>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Tunes the settings of the history for each dataset. All candidates returned by
+ * <code>BenchmarkSetup.getHistorySettingsCandidates()</code> are evaluated with the algorithm
+ * and metric returned by <code>BenchmarkSetup.getHistoryAlgorithm()</code> and
+ * <code>BenchmarkSetup.getHistoryMetric()</code> for all combinations of criteria and
+ * suppression values. The candidate with the lowest total execution time is stored in the
+ * profile of the dataset, which is loaded by all subsequent benchmarks. Candidates which are at
+ * most 5% slower are preferred, if they require less heap.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkHistory {
+
+    /** The benchmark instance */
+    private static final Benchmark BENCHMARK        = new Benchmark(new String[] { "Dataset", "Criteria", "Suppression", "Settings" });
+    /** Label for execution time */
+    public static final int        EXECUTION_TIME   = BENCHMARK.addMeasure("Execution time");
+    /** Label for the number of checks */
+    public static final int        NUMBER_OF_CHECKS = BENCHMARK.addMeasure("Number of checks");
+    /** Label for the peak heap usage */
+    public static final int        PEAK_HEAP        = BENCHMARK.addMeasure("Peak heap");
+    /** Label for the number of checks served by a snapshot */
+    public static final int        SNAPSHOT_HITS    = BENCHMARK.addMeasure("Snapshot hits");
+
+    /** The tolerated slowdown of candidates requiring less heap */
+    private static final double    TOLERANCE        = 0.05d;
+
+    static {
+        BENCHMARK.addAnalyzer(EXECUTION_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(NUMBER_OF_CHECKS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(PEAK_HEAP, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_HITS, new ValueBuffer());
+    }
+
+    /**
+     * Main entry point
+     * 
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        BenchmarkDriver driver = new BenchmarkDriver(BENCHMARK);
+        BenchmarkAlgorithm algorithm = BenchmarkSetup.getHistoryAlgorithm();
+        BenchmarkMetric metric = BenchmarkSetup.getHistoryMetric();
+        HistorySettings[] candidates = BenchmarkSetup.getHistorySettingsCandidates();
+
+        // For each dataset
+        for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+
+            long[] time = new long[candidates.length];
+            long[] heap = new long[candidates.length];
+
+            // For each combination of criteria
+            for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+
+                // For each suppression
+                for (double suppression : BenchmarkSetup.getSuppressionValues()) {
+
+                    // Learn the order in which criteria are evaluated
+                    driver.warmUp(criteria, dataset, metric, suppression, algorithm);
+
+                    // For each candidate
+                    for (int i = 0; i < candidates.length; i++) {
+
+                        // Print status info
+                        System.out.println("Tuning: " + dataset.toString() + " / " + Arrays.toString(criteria) +
+                                           " / " + suppression + " / " + candidates[i].toString());
+
+                        // Benchmark
+                        BENCHMARK.addRun(dataset.toString(), Arrays.toString(criteria), String.valueOf(suppression), candidates[i].toString());
+
+                        long[] result = driver.anonymizeHistory(criteria, dataset, metric, suppression, algorithm, candidates[i]);
+                        time[i] += result[0];
+                        heap[i] = Math.max(heap[i], result[2]);
+
+                        // Write results incrementally
+                        BENCHMARK.getResults().write(new File("results/history.csv"));
+                    }
+                }
+            }
+
+            // Select and store
+            HistorySettings best = candidates[getBest(time, heap)];
+            BenchmarkSetup.setHistorySettings(dataset, best);
+            System.out.println(" - Selected: " + best.toString());
+        }
+    }
+
+    /**
+     * Returns the index of the candidate with the lowest peak heap usage among all candidates
+     * whose execution time exceeds the lowest execution time by at most the tolerance
+     * @param time
+     * @param heap
+     * @return
+     */
+    private static int getBest(long[] time, long[] heap) {
+
+        int fastest = 0;
+        for (int i = 1; i < time.length; i++) {
+            if (time[i] < time[fastest]) {
+                fastest = i;
+            }
+        }
+
+        int best = fastest;
+        for (int i = 0; i < time.length; i++) {
+            if (time[i] <= time[fastest] * (1d + TOLERANCE) && heap[i] < heap[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
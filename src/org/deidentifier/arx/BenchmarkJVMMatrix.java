@@ -0,0 +1,291 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Runs the benchmark for a subset of the datasets under each of the JVM configurations returned
+ * by <code>BenchmarkSetup.getJVMConfigurations()</code>. Each combination is executed in a
+ * separate virtual machine, which reports its execution time, the total time spent in garbage
+ * collection pauses and its peak resident set size. The results are written to
+ * "results/jvm.csv", the results of the individual runs to the folder "results/jvm".
+ * Configurations which are not supported by the current JVM are reported as failed. Run with
+ * java -cp anonbench-0.2.jar org.deidentifier.arx.BenchmarkJVMMatrix [datasets]
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkJVMMatrix {
+
+    /** The benchmark instance */
+    private static final Benchmark BENCHMARK      = new Benchmark(new String[] { "Dataset", "JVM" });
+    /** Label for the execution time */
+    public static final int        EXECUTION_TIME = BENCHMARK.addMeasure("Execution time");
+    /** Label for the time spent in garbage collection pauses */
+    public static final int        GC_TIME        = BENCHMARK.addMeasure("GC time");
+    /** Label for the number of garbage collections */
+    public static final int        GC_COUNT       = BENCHMARK.addMeasure("GC count");
+    /** Label for the peak resident set size in kB */
+    public static final int        PEAK_RSS       = BENCHMARK.addMeasure("Peak RSS");
+    /** Label for the status of the run */
+    public static final int        STATUS         = BENCHMARK.addMeasure("Status");
+
+    /** Argument which marks a child process */
+    private static final String    CHILD          = "--child";
+    /** Prefix of the line with which a child reports its results */
+    private static final String    RESULT         = "RESULT;";
+    /** The folder containing the results of the individual runs */
+    private static final File      RUNS           = new File("results/jvm");
+
+    static {
+        BENCHMARK.addAnalyzer(EXECUTION_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(GC_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(GC_COUNT, new ValueBuffer());
+        BENCHMARK.addAnalyzer(PEAK_RSS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(STATUS, new ValueBuffer());
+    }
+
+    /**
+     * Main entry point
+     * 
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Child process
+        if (args.length == 3 && args[0].equals(CHILD)) {
+            runChild(getDataset(args[1]), args[2]);
+            return;
+        }
+
+        // Datasets
+        BenchmarkDataset[] datasets = BenchmarkSetup.getDatasets();
+        if (args.length > 0) {
+            datasets = new BenchmarkDataset[args.length];
+            for (int i = 0; i < args.length; i++) {
+                datasets[i] = getDataset(args[i]);
+            }
+        }
+
+        RUNS.mkdirs();
+        List<String[]> summary = new ArrayList<String[]>();
+
+        // For each configuration of the JVM
+        for (String[] options : BenchmarkSetup.getJVMConfigurations()) {
+
+            // For each dataset
+            for (BenchmarkDataset dataset : datasets) {
+
+                String label = getLabel(options);
+                System.out.println("Running: " + dataset.toString() + " / " + label);
+
+                BENCHMARK.addRun(dataset.toString(), label);
+                String[] result = runParent(options, dataset, label);
+                BENCHMARK.addValue(EXECUTION_TIME, result[0]);
+                BENCHMARK.addValue(GC_TIME, result[1]);
+                BENCHMARK.addValue(GC_COUNT, result[2]);
+                BENCHMARK.addValue(PEAK_RSS, result[3]);
+                BENCHMARK.addValue(STATUS, result[4]);
+                summary.add(new String[] { dataset.toString(), label, result[0], result[1], result[2], result[3], result[4] });
+
+                // Write results incrementally
+                BENCHMARK.getResults().write(new File("results/jvm.csv"));
+            }
+        }
+
+        // Print report
+        System.out.println();
+        System.out.println(String.format("%-10s %-50s %15s %12s %10s %14s  %s", "Dataset", "JVM", "Time [ms]", "GC [ms]", "GCs", "Peak RSS [kB]", "Status"));
+        for (String[] row : summary) {
+            System.out.println(String.format("%-10s %-50s %15s %12s %10s %14s  %s", (Object[]) row));
+        }
+    }
+
+    /**
+     * Returns the dataset with the given name
+     * @param name
+     * @return
+     */
+    private static BenchmarkDataset getDataset(String name) {
+        for (BenchmarkDataset dataset : BenchmarkDataset.values()) {
+            if (dataset.name().equalsIgnoreCase(name) || dataset.toString().equalsIgnoreCase(name)) {
+                return dataset;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dataset: " + name);
+    }
+
+    /**
+     * Returns the total number and duration in ms of garbage collection pauses. Collectors with
+     * concurrent phases, e.g. ZGC and Shenandoah, expose separate beans for pauses and cycles.
+     * If such beans exist, only pauses are accounted for.
+     * @return
+     */
+    private static long[] getGCPauses() {
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        boolean pausesOnly = false;
+        for (GarbageCollectorMXBean bean : beans) {
+            pausesOnly |= bean.getName().contains("Pauses");
+        }
+        long[] result = new long[2];
+        for (GarbageCollectorMXBean bean : beans) {
+            if (!pausesOnly || bean.getName().contains("Pauses")) {
+                result[0] += Math.max(0L, bean.getCollectionCount());
+                result[1] += Math.max(0L, bean.getCollectionTime());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a label for the given JVM options
+     * @param options
+     * @return
+     */
+    private static String getLabel(String[] options) {
+        StringBuilder builder = new StringBuilder();
+        for (String option : options) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(option);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the peak resident set size of this process in kB, -1 if unknown
+     * @return
+     */
+    private static long getPeakRSS() {
+        File status = new File("/proc/self/status");
+        if (!status.exists()) {
+            return -1L;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(status));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                }
+            }
+            return -1L;
+        } catch (IOException e) {
+            return -1L;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the benchmark for the given dataset and reports the results
+     * @param dataset
+     * @param label
+     * @throws IOException
+     */
+    private static void runChild(BenchmarkDataset dataset, String label) throws IOException {
+        String name = (label + "_" + dataset).toLowerCase().replaceAll("[^a-z0-9]+", "_");
+        long time = System.currentTimeMillis();
+        BenchmarkMain.run(new BenchmarkDataset[] { dataset }, new File(RUNS, name + ".csv"));
+        time = System.currentTimeMillis() - time;
+        long[] gc = getGCPauses();
+        System.out.println(RESULT + time + ";" + gc[1] + ";" + gc[0] + ";" + getPeakRSS());
+    }
+
+    /**
+     * Runs the benchmark for the given dataset in a JVM with the given options. Returns the
+     * execution time, the time spent in GC pauses, the number of GC pauses, the peak RSS and
+     * the status.
+     * @param options
+     * @param dataset
+     * @param label
+     * @return
+     * @throws IOException
+     */
+    private static String[] runParent(String[] options, BenchmarkDataset dataset, String label) throws IOException {
+
+        // Build command
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(Arrays.asList(options));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkJVMMatrix.class.getName());
+        command.add(CHILD);
+        command.add(dataset.name());
+        command.add(label);
+
+        // Run and forward output
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String[] result = null;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT)) {
+                    result = Arrays.copyOf(line.substring(RESULT.length()).split(";"), 5);
+                } else {
+                    System.out.println(" - " + line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Evaluate
+        int exit;
+        try {
+            exit = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            throw new RuntimeException("Interrupted while waiting for the JVM", e);
+        }
+        if (exit != 0 || result == null) {
+            return new String[] { "Failed", "Failed", "Failed", "Failed", "Failed (exit " + exit + ")" };
+        }
+        result[4] = "OK";
+        return result;
+    }
+}
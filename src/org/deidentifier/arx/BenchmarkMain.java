@@ -28,24 +28,91 @@ import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm.SuccessorOrdering;
 
 import de.linearbits.subframe.Benchmark;
 import de.linearbits.subframe.analyzer.ValueBuffer;
 
 /**
- * Main benchmark class. Run with java -Xmx4G -XX:+UseConcMarkSweepGC -jar anonbench-0.1.jar
+ * Main benchmark class. Run with java -Xmx4G -XX:+UseG1GC -jar anonbench-0.2.jar
  * 
  * @author Fabian Prasser
  */
 public class BenchmarkMain {
 
     /** The benchmark instance */
-    private static final Benchmark BENCHMARK        = new Benchmark(new String[] { "Algorithm", "Dataset", "Criteria" });
+    private static final Benchmark BENCHMARK              = new Benchmark(new String[] { "Algorithm", "Dataset", "Criteria", "Metric", "Suppression", "Bounding", "Successor ordering", "Verdict cache", "History", "Repetition" });
     /** Label for information loss */
-    public static final int        INFORMATION_LOSS = BENCHMARK.addMeasure("Information loss");
+    public static final int        INFORMATION_LOSS       = BENCHMARK.addMeasure("Information loss");
+    /** Label for execution time */
+    public static final int        EXECUTION_TIME         = BENCHMARK.addMeasure("Execution time");
+    /** Label for the number of checks */
+    public static final int        NUMBER_OF_CHECKS       = BENCHMARK.addMeasure("Number of checks");
+    /** Label for the number of rollups */
+    public static final int        NUMBER_OF_ROLLUPS      = BENCHMARK.addMeasure("Number of rollups");
+    /** Label for the peak heap usage */
+    public static final int        PEAK_HEAP              = BENCHMARK.addMeasure("Peak heap");
+    /** Label for the relative gap to the information loss of the global optimum */
+    public static final int        OPTIMALITY_GAP         = BENCHMARK.addMeasure("Optimality gap");
+    /** Label for hits of the risk estimate cache */
+    public static final int        RISK_CACHE_HITS        = BENCHMARK.addMeasure("Risk cache hits");
+    /** Label for misses of the risk estimate cache */
+    public static final int        RISK_CACHE_MISSES      = BENCHMARK.addMeasure("Risk cache misses");
+    /** Label for the time saved by the risk estimate cache */
+    public static final int        RISK_CACHE_TIME_SAVED  = BENCHMARK.addMeasure("Risk cache time saved");
+    /** Label for hits of the verdict caches of t-closeness */
+    public static final int        VERDICT_CACHE_HITS     = BENCHMARK.addMeasure("Verdict cache hits");
+    /** Label for misses of the verdict caches of t-closeness */
+    public static final int        VERDICT_CACHE_MISSES   = BENCHMARK.addMeasure("Verdict cache misses");
+    /** Label for the number of criteria evaluations skipped */
+    public static final int        SKIPPED_EVALUATIONS    = BENCHMARK.addMeasure("Skipped evaluations");
+    /** Label for the number of checks performed for bounding the lattice */
+    public static final int        BOUNDING_CHECKS        = BENCHMARK.addMeasure("Bounding checks");
+    /** Label for the time required for bounding the lattice, which is part of the execution time */
+    public static final int        BOUNDING_TIME          = BENCHMARK.addMeasure("Bounding time");
+    /** Label for the relative reduction of the size of the lattice by bounding */
+    public static final int        SEARCH_SPACE_REDUCTION = BENCHMARK.addMeasure("Search space reduction");
+    /** Label for the number of checks served by a snapshot */
+    public static final int        SNAPSHOT_HITS          = BENCHMARK.addMeasure("Snapshot hits");
+    /** Label for the number of checks not served by a snapshot */
+    public static final int        SNAPSHOT_MISSES        = BENCHMARK.addMeasure("Snapshot misses");
+    /** Label for the fraction of checks served by a snapshot */
+    public static final int        SNAPSHOT_HIT_RATE      = BENCHMARK.addMeasure("Snapshot hit rate");
+    /** Label for the number of snapshots requested by the storage strategy */
+    public static final int        SNAPSHOTS_REQUESTED    = BENCHMARK.addMeasure("Snapshots requested");
+    /** Label for the number of requested snapshots which did not increase the size of the history */
+    public static final int        SNAPSHOTS_DROPPED      = BENCHMARK.addMeasure("Snapshots dropped");
+    /** Label for the maximal number of snapshots held by a history */
+    public static final int        HISTORY_PEAK_SIZE      = BENCHMARK.addMeasure("History peak size");
+    /** Label for the maximal number of snapshots held by a history, relative to its capacity */
+    public static final int        HISTORY_UTILIZATION    = BENCHMARK.addMeasure("History utilization");
+    /** Label for the estimated memory occupied by snapshots at the end of the search */
+    public static final int        SNAPSHOT_MEMORY        = BENCHMARK.addMeasure("Snapshot memory");
 
     static {
         BENCHMARK.addAnalyzer(INFORMATION_LOSS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(EXECUTION_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(NUMBER_OF_CHECKS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(NUMBER_OF_ROLLUPS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(PEAK_HEAP, new ValueBuffer());
+        BENCHMARK.addAnalyzer(OPTIMALITY_GAP, new ValueBuffer());
+        BENCHMARK.addAnalyzer(RISK_CACHE_HITS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(RISK_CACHE_MISSES, new ValueBuffer());
+        BENCHMARK.addAnalyzer(RISK_CACHE_TIME_SAVED, new ValueBuffer());
+        BENCHMARK.addAnalyzer(VERDICT_CACHE_HITS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(VERDICT_CACHE_MISSES, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SKIPPED_EVALUATIONS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(BOUNDING_CHECKS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(BOUNDING_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SEARCH_SPACE_REDUCTION, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_HITS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_MISSES, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_HIT_RATE, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOTS_REQUESTED, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOTS_DROPPED, new ValueBuffer());
+        BENCHMARK.addAnalyzer(HISTORY_PEAK_SIZE, new ValueBuffer());
+        BENCHMARK.addAnalyzer(HISTORY_UTILIZATION, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_MEMORY, new ValueBuffer());
     }
 
     /**
@@ -55,39 +122,87 @@ public class BenchmarkMain {
      * @throws IOException
      */
     public static void main(String[] args) throws IOException {
+        run(BenchmarkSetup.getDatasets(), new File("results/results.csv"));
+    }
+
+    /**
+     * Runs the benchmark for the given datasets
+     * 
+     * @param datasets
+     * @param output
+     * @throws IOException
+     */
+    static void run(BenchmarkDataset[] datasets, File output) throws IOException {
 
         BenchmarkDriver driver = new BenchmarkDriver(BENCHMARK);
 
-        // For each combination of criteria
-        for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+        // Monitor progress
+        BenchmarkMonitor monitor = BenchmarkMonitor.getInstance();
+        monitor.start(BenchmarkSetup.getPrivacyCriteria().length * datasets.length *
+                      BenchmarkSetup.getMetrics().length * BenchmarkSetup.getSuppressionValues().length *
+                      BenchmarkSetup.getAlgorithms().length * BenchmarkSetup.getLatticeBounding().length *
+                      BenchmarkSetup.getSuccessorOrderings().length * BenchmarkSetup.getClassVerdictCacheSizes().length *
+                      BenchmarkSetup.getRepetitions());
+        if (BenchmarkSetup.getMonitorPort() > 0) {
+            monitor.startHttpServer(BenchmarkSetup.getMonitorPort());
+        }
+
+        try {
+
+            // For each combination of criteria
+            for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+
+                // For each dataset
+                for (BenchmarkDataset dataset : datasets) {
+
+                    // For each metric
+                    for (BenchmarkMetric metric : BenchmarkSetup.getMetrics()) {
+
+                        // For each suppression
+                        for (double suppression : BenchmarkSetup.getSuppressionValues()) {
+
+                            // For each algorithm
+                            for (BenchmarkAlgorithm algorithm : BenchmarkSetup.getAlgorithms()) {
+
+                                // Learn the order in which criteria are evaluated
+                                driver.warmUp(criteria, dataset, metric, suppression, algorithm);
 
-            // For each dataset
-            for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+                                // With and without bounding
+                                for (boolean bounding : BenchmarkSetup.getLatticeBounding()) {
 
-                // For each metric
-                for (BenchmarkMetric metric : BenchmarkSetup.getMetrics()) {
+                                    // For each order of successors
+                                    for (SuccessorOrdering ordering : BenchmarkSetup.getSuccessorOrderings()) {
 
-                    // For each suppression
-                    for (double suppression : BenchmarkSetup.getSuppressionValues()) {
+                                        // With and without caching verdicts
+                                        for (int verdictCacheSize : BenchmarkSetup.getClassVerdictCacheSizes()) {
 
-                        // For each algorithm
-                        for (BenchmarkAlgorithm algorithm : BenchmarkSetup.getAlgorithms()) {
+                                            // For each repetition
+                                            for (int repetition = 0; repetition < BenchmarkSetup.getRepetitions(); repetition++) {
 
-                            // Print status info
-                            System.out.println("Running: " + algorithm.toString() + " / " + dataset.toString() + " / " +
-                                               Arrays.toString(criteria));
+                                                // Print status info
+                                                System.out.println("Running: " + algorithm.toString() + " / " + dataset.toString() + " / " +
+                                                                   Arrays.toString(criteria) + " / " + bounding + " / " + ordering + " / " + verdictCacheSize + " / " + repetition);
 
-                            // Benchmark
-                            BENCHMARK.addRun(algorithm.toString(), dataset.toString(), Arrays.toString(criteria));
+                                                // Benchmark
+                                                BENCHMARK.addRun(algorithm.toString(), dataset.toString(), Arrays.toString(criteria), metric.toString(), String.valueOf(suppression),
+                                                                 String.valueOf(bounding), ordering.toString(), String.valueOf(verdictCacheSize),
+                                                                 BenchmarkSetup.getHistorySettings(dataset).toString(), String.valueOf(repetition));
 
-                            driver.anonymize(criteria, dataset, metric, suppression, algorithm);
+                                                driver.anonymize(criteria, dataset, metric, suppression, algorithm, bounding, ordering, verdictCacheSize);
 
-                            // Write results incrementally
-                            BENCHMARK.getResults().write(new File("results/results.csv"));
+                                                // Write results incrementally
+                                                BENCHMARK.getResults().write(output);
+                                            }
+                                        }
+                                    }
+                                }
+                            }
                         }
                     }
                 }
             }
+        } finally {
+            monitor.stopHttpServer();
         }
     }
 }
@@ -0,0 +1,244 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm;
+import org.deidentifier.arx.framework.lattice.Node;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Exposes the progress of long-running benchmarks via JMX and, optionally, via a plain-text
+ * HTTP endpoint bound to the loopback interface. Values are sampled from the counters that the
+ * algorithms maintain anyway, when they are requested, such that monitoring does not add any
+ * work to the checks being measured.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkMonitor implements BenchmarkMonitorMBean {
+
+    /** The name of the MBean */
+    public static final String                  NAME     = "org.deidentifier.arx:type=BenchmarkMonitor";
+
+    /** The instance */
+    private static final BenchmarkMonitor       INSTANCE = new BenchmarkMonitor();
+
+    /** The algorithm of the current run */
+    private volatile AbstractBenchmarkAlgorithm implementation;
+    /** The configuration of the current run */
+    private volatile String                     configuration;
+    /** The start of the current run */
+    private volatile long                       start;
+    /** The start of the benchmark */
+    private volatile long                       begin    = System.currentTimeMillis();
+    /** The number of completed runs */
+    private volatile int                        completed;
+    /** The total number of runs */
+    private volatile int                        total;
+    /** The HTTP server, may be null */
+    private HttpServer                          server;
+
+    /**
+     * Returns the instance, which is registered with the platform MBean server on first access
+     * @return
+     */
+    public static BenchmarkMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new instance
+     */
+    private BenchmarkMonitor() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(NAME));
+        } catch (JMException e) {
+            throw new RuntimeException("Cannot register monitor", e);
+        }
+    }
+
+    /**
+     * Marks the beginning of a run
+     * @param configuration
+     * @param implementation
+     */
+    public void begin(String configuration, AbstractBenchmarkAlgorithm implementation) {
+        this.configuration = configuration;
+        this.start = System.currentTimeMillis();
+        this.implementation = implementation;
+    }
+
+    /**
+     * Marks the end of the current run
+     */
+    public void end() {
+        this.implementation = null;
+        this.configuration = null;
+        this.completed++;
+    }
+
+    @Override
+    public double getChecksPerSecond() {
+        AbstractBenchmarkAlgorithm _implementation = implementation;
+        long elapsed = System.currentTimeMillis() - start;
+        return _implementation == null || elapsed == 0 ? 0d : _implementation.getNumChecks() * 1000d / elapsed;
+    }
+
+    @Override
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return implementation == null ? 0 : System.currentTimeMillis() - start;
+    }
+
+    @Override
+    public long getHeapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public String getInformationLoss() {
+        AbstractBenchmarkAlgorithm _implementation = implementation;
+        Node optimum = _implementation == null ? null : _implementation.getGlobalOptimum();
+        return optimum == null || optimum.getInformationLoss() == null ? null : optimum.getInformationLoss().toString();
+    }
+
+    @Override
+    public int getMaxQueueSize() {
+        AbstractBenchmarkAlgorithm _implementation = implementation;
+        return _implementation == null ? 0 : _implementation.getMaxQueueSize();
+    }
+
+    @Override
+    public int getNumChecks() {
+        AbstractBenchmarkAlgorithm _implementation = implementation;
+        return _implementation == null ? 0 : _implementation.getNumChecks();
+    }
+
+    @Override
+    public int getNumCompletedRuns() {
+        return completed;
+    }
+
+    @Override
+    public int getNumRemainingRuns() {
+        return Math.max(0, total - completed);
+    }
+
+    @Override
+    public int getNumRollups() {
+        AbstractBenchmarkAlgorithm _implementation = implementation;
+        return _implementation == null ? 0 : _implementation.getNumRollups();
+    }
+
+    @Override
+    public int getQueueSize() {
+        AbstractBenchmarkAlgorithm _implementation = implementation;
+        return _implementation == null ? 0 : _implementation.getQueueSize();
+    }
+
+    @Override
+    public long getTotalElapsedTime() {
+        return System.currentTimeMillis() - begin;
+    }
+
+    /**
+     * Marks the beginning of a benchmark consisting of the given number of runs
+     * @param total
+     */
+    public void start(int total) {
+        this.begin = System.currentTimeMillis();
+        this.completed = 0;
+        this.total = total;
+    }
+
+    /**
+     * Starts an HTTP server on the loopback interface, which returns all values as plain text
+     * @param port
+     * @throws IOException
+     */
+    public synchronized void startHttpServer(int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] response = BenchmarkMonitor.this.toString().getBytes(Charset.forName("UTF-8"));
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream out = exchange.getResponseBody();
+                try {
+                    out.write(response);
+                } finally {
+                    out.close();
+                }
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Stops the HTTP server, if it has been started
+     */
+    public synchronized void stopHttpServer() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Configuration: ").append(getConfiguration()).append("\n");
+        builder.append("Checks: ").append(getNumChecks()).append("\n");
+        builder.append("Checks per second: ").append(getChecksPerSecond()).append("\n");
+        builder.append("Rollups: ").append(getNumRollups()).append("\n");
+        builder.append("Queue size: ").append(getQueueSize()).append(" / ").append(getMaxQueueSize()).append("\n");
+        builder.append("Information loss: ").append(getInformationLoss()).append("\n");
+        builder.append("Elapsed time: ").append(getElapsedTime()).append(" ms\n");
+        builder.append("Total elapsed time: ").append(getTotalElapsedTime()).append(" ms\n");
+        builder.append("Heap used: ").append(getHeapUsed()).append(" bytes\n");
+        builder.append("Completed runs: ").append(getNumCompletedRuns()).append("\n");
+        builder.append("Remaining runs: ").append(getNumRemainingRuns()).append("\n");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+/**
+ * Management interface of the <code>BenchmarkMonitor</code>
+ *
+ * @author Fabian Prasser
+ */
+public interface BenchmarkMonitorMBean {
+
+    /**
+     * Returns the average number of checks per second performed in the current run
+     * @return
+     */
+    public double getChecksPerSecond();
+
+    /**
+     * Returns the configuration of the current run, or null if no run is active
+     * @return
+     */
+    public String getConfiguration();
+
+    /**
+     * Returns the time elapsed in the current run in milliseconds
+     * @return
+     */
+    public long getElapsedTime();
+
+    /**
+     * Returns the heap memory currently in use in bytes
+     * @return
+     */
+    public long getHeapUsed();
+
+    /**
+     * Returns the information loss of the best solution found in the current run, or null
+     * @return
+     */
+    public String getInformationLoss();
+
+    /**
+     * Returns the maximal size of the priority queue
+     * @return
+     */
+    public int getMaxQueueSize();
+
+    /**
+     * Returns the number of checks performed in the current run
+     * @return
+     */
+    public int getNumChecks();
+
+    /**
+     * Returns the number of completed runs
+     * @return
+     */
+    public int getNumCompletedRuns();
+
+    /**
+     * Returns the number of remaining runs, including the current run
+     * @return
+     */
+    public int getNumRemainingRuns();
+
+    /**
+     * Returns the number of potential rollups in the current run
+     * @return
+     */
+    public int getNumRollups();
+
+    /**
+     * Returns the size of the priority queue in the current run
+     * @return
+     */
+    public int getQueueSize();
+
+    /**
+     * Returns the time elapsed since the benchmark has been started in milliseconds
+     * @return
+     */
+    public long getTotalElapsedTime();
+}
@@ -0,0 +1,104 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Executes all algorithms and their stepping variants concurrently as a portfolio and
+ * reports which strategy found the first and the best solution and when. The number of
+ * threads may be given as the first argument and defaults to the number of processors.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkPortfolio {
+
+    /** The benchmark instance */
+    private static final Benchmark BENCHMARK        = new Benchmark(new String[] { "Dataset", "Criteria", "Metric", "Suppression" });
+    /** Label for information loss of the best solution */
+    public static final int        INFORMATION_LOSS = BENCHMARK.addMeasure("Information loss");
+    /** Label for the strategy which found the first solution */
+    public static final int        FIRST_STRATEGY   = BENCHMARK.addMeasure("First strategy");
+    /** Label for the time at which the first solution was found */
+    public static final int        FIRST_TIME       = BENCHMARK.addMeasure("First time");
+    /** Label for the strategy which found the best solution */
+    public static final int        BEST_STRATEGY    = BENCHMARK.addMeasure("Best strategy");
+    /** Label for the time at which the best solution was found */
+    public static final int        BEST_TIME        = BENCHMARK.addMeasure("Best time");
+
+    static {
+        BENCHMARK.addAnalyzer(INFORMATION_LOSS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(FIRST_STRATEGY, new ValueBuffer());
+        BENCHMARK.addAnalyzer(FIRST_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(BEST_STRATEGY, new ValueBuffer());
+        BENCHMARK.addAnalyzer(BEST_TIME, new ValueBuffer());
+    }
+
+    /**
+     * Main entry point
+     * 
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        BenchmarkDriver driver = new BenchmarkDriver(BENCHMARK);
+
+        // For each combination of criteria
+        for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+
+            // For each dataset
+            for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+
+                // For each metric
+                for (BenchmarkMetric metric : BenchmarkSetup.getMetrics()) {
+
+                    // For each suppression
+                    for (double suppression : BenchmarkSetup.getSuppressionValues()) {
+
+                        // Print status info
+                        System.out.println("Running portfolio: " + dataset.toString() + " / " + Arrays.toString(criteria) +
+                                           " / " + metric.toString() + " / " + suppression);
+
+                        // Benchmark
+                        BENCHMARK.addRun(dataset.toString(), Arrays.toString(criteria), metric.toString(), String.valueOf(suppression));
+
+                        driver.anonymizePortfolio(criteria, dataset, metric, suppression, threads);
+
+                        // Write results incrementally
+                        BENCHMARK.getResults().write(new File("results/portfolio.csv"));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.deidentifier.arx.algorithm.ConcurrentMinMaxPriorityQueue;
+import org.deidentifier.arx.algorithm.MinMaxPriorityQueue;
+
+import de.linearbits.subframe.io.CSVFile;
+
+/**
+ * Compares the throughput of the concurrent min-max-queue with the min-max-queue
+ * protected by a single lock. Each thread performs a mix of additions, polls and
+ * evictions of the tail. Results are written to <code>results/queue.csv</code>.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkQueue {
+
+    /**
+     * Common interface of the implementations
+     */
+    private static interface Queue {
+        public void add(Integer element);
+        public Integer poll();
+        public Integer removeTail();
+    }
+
+    /** The maximal size of the queue */
+    private static final int                 CAPACITY    = 50000;
+    /** The number of operations per thread */
+    private static final int                 OPERATIONS  = 50000;
+    /** The number of repetitions */
+    private static final int                 REPETITIONS = 5;
+    /** The comparator */
+    private static final Comparator<Integer> COMPARATOR  = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    /**
+     * Main entry point
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Create csv
+        String[] header = new String[] { "Threads", "Implementation", "Operations per ms" };
+        String[] empty = new String[header.length];
+        Arrays.fill(empty, "");
+        CSVFile csv = new CSVFile(empty, header);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(8, processors); threads <<= 1) {
+            for (String implementation : new String[] { "Locked", "Concurrent" }) {
+
+                // Warmup and measure
+                double best = 0d;
+                for (int i = 0; i < REPETITIONS + 1; i++) {
+                    double throughput = run(getQueue(implementation), threads);
+                    if (i > 0) {
+                        best = Math.max(best, throughput);
+                    }
+                }
+
+                System.out.println(implementation + " / " + threads + " threads: " + best + " [ops/ms]");
+                csv.addLine(new String[] { String.valueOf(threads), implementation, String.valueOf(best) });
+            }
+        }
+        csv.write(new File("results/queue.csv"));
+    }
+
+    /**
+     * Returns an instance of the given implementation
+     * @param implementation
+     * @return
+     */
+    private static Queue getQueue(String implementation) {
+        if (implementation.equals("Locked")) {
+            final MinMaxPriorityQueue<Integer> queue = new MinMaxPriorityQueue<Integer>(CAPACITY, COMPARATOR);
+            return new Queue() {
+                @Override
+                public synchronized void add(Integer element) {
+                    queue.add(element);
+                    while (queue.size() > CAPACITY) {
+                        queue.removeTail();
+                    }
+                }
+                @Override
+                public synchronized Integer poll() {
+                    return queue.poll();
+                }
+                @Override
+                public synchronized Integer removeTail() {
+                    return queue.removeTail();
+                }
+            };
+        } else {
+            final ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(CAPACITY, COMPARATOR);
+            return new Queue() {
+                @Override
+                public void add(Integer element) {
+                    queue.add(element);
+                }
+                @Override
+                public Integer poll() {
+                    return queue.poll();
+                }
+                @Override
+                public Integer removeTail() {
+                    return queue.removeTail();
+                }
+            };
+        }
+    }
+
+    /**
+     * Performs the operations and returns the throughput in operations per millisecond
+     * @param queue
+     * @param threads
+     * @return
+     */
+    private static double run(final Queue queue, int threads) {
+
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            final Random random = new Random(i);
+            workers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    for (int j = 0; j < OPERATIONS; j++) {
+                        int operation = random.nextInt(10);
+                        if (operation < 6) {
+                            queue.add(random.nextInt(CAPACITY * 4));
+                        } else if (operation < 9) {
+                            queue.poll();
+                        } else {
+                            queue.removeTail();
+                        }
+                    }
+                }
+            }));
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        long time = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        time = System.nanoTime() - time;
+        return (double) threads * OPERATIONS / ((double) time / 1000000d);
+    }
+}
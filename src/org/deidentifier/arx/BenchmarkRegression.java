@@ -0,0 +1,254 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.deidentifier.arx.analysis.Accumulator;
+import org.deidentifier.arx.analysis.Bootstrap;
+import org.deidentifier.arx.analysis.ResultsCube;
+import org.deidentifier.arx.analysis.ResultsCube.Aggregate;
+
+import de.linearbits.subframe.analyzer.Analyzer;
+
+/**
+ * Compares a candidate results file with a baseline results file, e.g. the results before and
+ * after a change to the implementation. Configurations are matched by all dimensions except for
+ * the repetition. Execution time regresses, if the candidate is significantly worse according to
+ * a bootstrap test and its mean exceeds the mean of the baseline by more than a threshold. The
+ * test requires at least two values per configuration in both files. Otherwise, e.g. for older
+ * results which only contain means, execution time is compared by the threshold only. Peak heap
+ * usage depends on the timing of garbage collections, so it is always compared by the threshold
+ * only. The numbers of checks and rollups are deterministic and regress, if they differ at all.
+ * The report states which comparison has been used for each measure. Configurations of the baseline which are missing in the candidate or which only failed,
+ * e.g. due to a timeout, regress as well. Exits with status 1, if any configuration regresses.
+ * Run with
+ * java -cp anonbench-0.2.jar org.deidentifier.arx.BenchmarkRegression baseline.csv candidate.csv [threshold]
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkRegression {
+
+    /**
+     * The ways in which a measure is compared
+     */
+    private static enum Comparison {
+        /** Regresses if the mean exceeds the threshold and the increase is significant */
+        STATISTICAL {
+            @Override
+            public String toString() {
+                return "bootstrap test and threshold";
+            }
+        },
+        /** Regresses if the mean exceeds the threshold */
+        THRESHOLD {
+            @Override
+            public String toString() {
+                return "threshold only";
+            }
+        },
+        /** Regresses if the mean differs */
+        EXACT {
+            @Override
+            public String toString() {
+                return "exact";
+            }
+        }
+    }
+
+    /** The measures which are compared with a statistical test */
+    private static final String[]  STATISTICAL    = { "Execution time" };
+
+    /** The measures which are compared by the threshold only */
+    private static final String[]  THRESHOLD_ONLY = { "Peak heap" };
+
+    /** The measures which are compared exactly */
+    private static final String[]  EXACT          = { "Number of checks", "Number of rollups" };
+
+    /** The default threshold for the relative increase of the mean */
+    private static final double    THRESHOLD      = 0.1d;
+
+    /** The significance level */
+    private static final double    ALPHA          = 0.05d;
+
+    /** The bootstrap engine */
+    private static final Bootstrap BOOTSTRAP      = new Bootstrap(10000, 1d - ALPHA, 0L);
+
+    /**
+     * Main entry point
+     * 
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Parse
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("Usage: BenchmarkRegression <baseline> <candidate> [threshold]");
+            System.exit(2);
+        }
+        ResultsCube baseline = ResultsCube.load(new File(args[0]));
+        ResultsCube candidate = ResultsCube.load(new File(args[1]));
+        double threshold = args.length == 3 ? Double.valueOf(args[2]) : THRESHOLD;
+        String[] configuration = getConfiguration(baseline, candidate);
+        System.out.println("Comparing " + args[1] + " with " + args[0] + " by " + Arrays.toString(configuration));
+
+        // Compare
+        int regressions = 0;
+        for (String measure : STATISTICAL) {
+            regressions += compare(baseline, candidate, configuration, measure, threshold, Comparison.STATISTICAL);
+        }
+        for (String measure : THRESHOLD_ONLY) {
+            regressions += compare(baseline, candidate, configuration, measure, threshold, Comparison.THRESHOLD);
+        }
+        for (String measure : EXACT) {
+            regressions += compare(baseline, candidate, configuration, measure, threshold, Comparison.EXACT);
+        }
+
+        // Report
+        if (regressions > 0) {
+            System.out.println("FAILED: " + regressions + " regression(s)");
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    /**
+     * Compares a measure for all configurations and prints all regressions. Statistical
+     * comparisons fall back to the threshold for configurations with less than two values.
+     * @param baseline
+     * @param candidate
+     * @param configuration
+     * @param measure
+     * @param threshold
+     * @param comparison
+     * @return The number of regressions
+     */
+    private static int compare(ResultsCube baseline,
+                               ResultsCube candidate,
+                               String[] configuration,
+                               String measure,
+                               double threshold,
+                               Comparison comparison) {
+
+        // Check
+        String analyzer1 = getAnalyzer(baseline, measure);
+        String analyzer2 = getAnalyzer(candidate, measure);
+        if (analyzer1 == null || analyzer2 == null) {
+            System.out.println(" - " + measure + ": not contained in both files, skipped");
+            return 0;
+        }
+
+        // Group
+        Map<List<String>, Accumulator> groups1 = baseline.group(measure, analyzer1, true, configuration);
+        Map<List<String>, Accumulator> groups2 = candidate.group(measure, analyzer2, true, configuration);
+
+        // Compare
+        int compared = 0;
+        int missing = 0;
+        int untested = 0;
+        List<String> regressions = new ArrayList<String>();
+        for (Map.Entry<List<String>, Accumulator> entry : groups1.entrySet()) {
+
+            Accumulator accumulator1 = entry.getValue();
+            Accumulator accumulator2 = groups2.get(entry.getKey());
+            if (accumulator2 == null) {
+                missing++;
+                regressions.add(String.format("%s: %s -> missing or failed", entry.getKey(), accumulator1.get(Aggregate.ARITHMETIC_MEAN)));
+                continue;
+            }
+            compared++;
+
+            double mean1 = accumulator1.get(Aggregate.ARITHMETIC_MEAN);
+            double mean2 = accumulator2.get(Aggregate.ARITHMETIC_MEAN);
+            double change = mean1 != 0d ? (mean2 - mean1) / mean1 : (mean2 > 0d ? Double.POSITIVE_INFINITY : 0d);
+            if (comparison == Comparison.EXACT) {
+                if (mean2 != mean1) {
+                    regressions.add(String.format("%s: %s -> %s (%+.1f%%)", entry.getKey(), mean1, mean2, change * 100d));
+                }
+            } else if (comparison == Comparison.STATISTICAL && accumulator1.getCount() >= 2 && accumulator2.getCount() >= 2) {
+                if (change > threshold) {
+                    double p = BOOTSTRAP.getPValue(accumulator1.getValues(), accumulator2.getValues());
+                    if (p < ALPHA) {
+                        regressions.add(String.format("%s: %s -> %s (%+.1f%%, p=%.3f)", entry.getKey(), mean1, mean2, change * 100d, p));
+                    }
+                }
+            } else {
+                if (comparison == Comparison.STATISTICAL) {
+                    untested++;
+                }
+                if (change > threshold) {
+                    regressions.add(String.format("%s: %s -> %s (%+.1f%%, threshold only)", entry.getKey(), mean1, mean2, change * 100d));
+                }
+            }
+        }
+
+        // Print
+        System.out.println(" - " + measure + " (" + comparison + "): " + compared + " configurations compared, " + missing +
+                           " missing or failed in candidate, " + regressions.size() + " regression(s)");
+        if (untested > 0) {
+            System.out.println("   " + untested + " configuration(s) with less than two values compared by " + Comparison.THRESHOLD);
+        }
+        for (String regression : regressions) {
+            System.out.println("   REGRESSION " + regression);
+        }
+        return regressions.size();
+    }
+
+    /**
+     * Returns the analyzer with which the measure is stored, or null if it is not contained.
+     * Results with repetitions contain one value per repetition, older results contain means.
+     * @param cube
+     * @param measure
+     * @return
+     */
+    private static String getAnalyzer(ResultsCube cube, String measure) {
+        if (cube.hasMeasure(measure, Analyzer.VALUE)) {
+            return Analyzer.VALUE;
+        } else if (cube.hasMeasure(measure, Analyzer.ARITHMETIC_MEAN)) {
+            return Analyzer.ARITHMETIC_MEAN;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the dimensions of the baseline which are contained in both files, except for the repetition
+     * @param baseline
+     * @param candidate
+     * @return
+     */
+    private static String[] getConfiguration(ResultsCube baseline, ResultsCube candidate) {
+        List<String> result = new ArrayList<String>();
+        for (String dimension : baseline.getDimensions()) {
+            if (!dimension.equals("Repetition") && candidate.hasDimension(dimension)) {
+                result.add(dimension);
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+}
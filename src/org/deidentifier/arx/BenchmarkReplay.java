@@ -0,0 +1,163 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
+
+import de.linearbits.subframe.Benchmark;
+import de.linearbits.subframe.analyzer.ValueBuffer;
+
+/**
+ * Benchmarks checkers on realistic access patterns. For each configuration, the sequence of
+ * transformations checked by the algorithm is recorded to a trace file once. The trace is then
+ * replayed against checkers with the current history settings of the dataset and all candidates
+ * returned by <code>BenchmarkSetup.getHistorySettingsCandidates()</code>, without the overhead of
+ * the search. Traces are kept in the folder "traces" and reused by subsequent runs, which must
+ * be deleted when algorithms change.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkReplay {
+
+    /** The benchmark instance */
+    private static final Benchmark BENCHMARK         = new Benchmark(new String[] { "Algorithm", "Dataset", "Criteria", "Metric", "Suppression", "Settings" });
+    /** Label for the time spent in replayed checks */
+    public static final int        EXECUTION_TIME    = BENCHMARK.addMeasure("Execution time");
+    /** Label for the time spent in the recorded checks */
+    public static final int        RECORDED_TIME     = BENCHMARK.addMeasure("Recorded time");
+    /** Label for the number of checks */
+    public static final int        NUMBER_OF_CHECKS  = BENCHMARK.addMeasure("Number of checks");
+    /** Label for the number of checks with a verdict differing from the trace */
+    public static final int        MISMATCHES        = BENCHMARK.addMeasure("Mismatches");
+    /** Label for the number of checks served by a snapshot */
+    public static final int        SNAPSHOT_HITS     = BENCHMARK.addMeasure("Snapshot hits");
+    /** Label for the fraction of checks served by a snapshot */
+    public static final int        SNAPSHOT_HIT_RATE = BENCHMARK.addMeasure("Snapshot hit rate");
+
+    /** The folder containing the traces */
+    private static final File      TRACES            = new File("traces");
+
+    static {
+        BENCHMARK.addAnalyzer(EXECUTION_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(RECORDED_TIME, new ValueBuffer());
+        BENCHMARK.addAnalyzer(NUMBER_OF_CHECKS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(MISMATCHES, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_HITS, new ValueBuffer());
+        BENCHMARK.addAnalyzer(SNAPSHOT_HIT_RATE, new ValueBuffer());
+    }
+
+    /**
+     * Main entry point
+     * 
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        BenchmarkDriver driver = new BenchmarkDriver(BENCHMARK);
+        TRACES.mkdirs();
+
+        // For each combination of criteria
+        for (BenchmarkCriterion[] criteria : BenchmarkSetup.getPrivacyCriteria()) {
+
+            // For each dataset
+            for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+
+                // For each metric
+                for (BenchmarkMetric metric : BenchmarkSetup.getMetrics()) {
+
+                    // For each suppression
+                    for (double suppression : BenchmarkSetup.getSuppressionValues()) {
+
+                        // For each algorithm
+                        for (BenchmarkAlgorithm algorithm : BenchmarkSetup.getAlgorithms()) {
+
+                            // Record
+                            File trace = getTrace(criteria, dataset, metric, suppression, algorithm);
+                            if (!trace.exists()) {
+                                System.out.println("Recording: " + algorithm.toString() + " / " + dataset.toString() + " / " +
+                                                   Arrays.toString(criteria));
+                                System.out.println(" - Checks: " + driver.recordTrace(criteria, dataset, metric, suppression, algorithm, trace));
+                            }
+
+                            // For each configuration of the checker
+                            for (HistorySettings settings : getSettings(dataset)) {
+
+                                // Print status info
+                                System.out.println("Replaying: " + algorithm.toString() + " / " + dataset.toString() + " / " +
+                                                   Arrays.toString(criteria) + " / " + settings.toString());
+
+                                // Benchmark
+                                BENCHMARK.addRun(algorithm.toString(), dataset.toString(), Arrays.toString(criteria), metric.toString(), String.valueOf(suppression), settings.toString());
+
+                                driver.replayTrace(criteria, dataset, metric, suppression, algorithm, settings, trace);
+
+                                // Write results incrementally
+                                BENCHMARK.getResults().write(new File("results/replay.csv"));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the history settings against which traces are replayed for the given dataset
+     * @param dataset
+     * @return
+     * @throws IOException
+     */
+    private static List<HistorySettings> getSettings(BenchmarkDataset dataset) throws IOException {
+        List<HistorySettings> result = new ArrayList<HistorySettings>();
+        result.add(BenchmarkSetup.getHistorySettings(dataset));
+        result.addAll(Arrays.asList(BenchmarkSetup.getHistorySettingsCandidates()));
+        return result;
+    }
+
+    /**
+     * Returns the trace file for the given configuration
+     * @param criteria
+     * @param dataset
+     * @param metric
+     * @param suppression
+     * @param algorithm
+     * @return
+     */
+    private static File getTrace(BenchmarkCriterion[] criteria,
+                                 BenchmarkDataset dataset,
+                                 BenchmarkMetric metric,
+                                 double suppression,
+                                 BenchmarkAlgorithm algorithm) {
+        String name = algorithm + "_" + dataset + "_" + Arrays.toString(criteria) + "_" + metric + "_" + suppression;
+        return new File(TRACES, name.toLowerCase().replaceAll("[^a-z0-9.]+", "_") + ".trace");
+    }
+}
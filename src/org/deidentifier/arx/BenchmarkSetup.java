@@ -20,19 +20,37 @@
 
 package org.deidentifier.arx;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 import org.deidentifier.arx.ARXPopulationModel.Region;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkAlgorithm;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
 import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
-import org.deidentifier.arx.criteria.DPresence;
-import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
-import org.deidentifier.arx.criteria.KAnonymity;
-import org.deidentifier.arx.criteria.PopulationUniqueness;
-import org.deidentifier.arx.criteria.RecursiveCLDiversity;
+import org.deidentifier.arx.HistorySettings.StorageTrigger;
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm.SearchDirection;
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm.SuccessorOrdering;
+import org.deidentifier.arx.criteria.CachedPopulationUniqueness;
+import org.deidentifier.arx.criteria.CriterionChain;
+import org.deidentifier.arx.criteria.ProfiledDPresence;
+import org.deidentifier.arx.criteria.ProfiledHierarchicalDistanceTCloseness;
+import org.deidentifier.arx.criteria.ProfiledKAnonymity;
+import org.deidentifier.arx.criteria.ProfiledRecursiveCLDiversity;
 import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.sweep.SweepParameter;
 
 /**
  * This class encapsulates most of the parameters of a benchmark run
@@ -40,6 +58,12 @@ import org.deidentifier.arx.metric.Metric;
  */
 public class BenchmarkSetup {
 
+    /** Research subsets, materialized once per dataset */
+    private static final Map<BenchmarkDataset, DataSubset>      subsets  = new EnumMap<BenchmarkDataset, DataSubset>(BenchmarkDataset.class);
+
+    /** History settings, loaded once per dataset */
+    private static final Map<BenchmarkDataset, HistorySettings> settings = new EnumMap<BenchmarkDataset, HistorySettings>(BenchmarkDataset.class);
+
     /**
      * Returns all suppression values
      * @return
@@ -69,6 +93,24 @@ public class BenchmarkSetup {
             public String toString() {
                 return "ImprovedGreedy";
             }
+        },
+        BEAM_SEARCH {
+            @Override
+            public String toString() {
+                return "BeamSearch";
+            }
+        },
+        LOCAL_SEARCH {
+            @Override
+            public String toString() {
+                return "LocalSearch";
+            }
+        },
+        EXHAUSTIVE {
+            @Override
+            public String toString() {
+                return "Exhaustive";
+            }
         };
     }
 
@@ -165,6 +207,197 @@ public class BenchmarkSetup {
         };
     }
 
+    /**
+     * Returns the algorithms which check nodes in parallel. They are not part of the default
+     * grid and are benchmarked by <code>BenchmarkParallel</code>.
+     * @return
+     */
+    public static BenchmarkAlgorithm[] getParallelAlgorithms() {
+        return new BenchmarkAlgorithm[] {
+                BenchmarkAlgorithm.BEAM_SEARCH,
+                BenchmarkAlgorithm.LOCAL_SEARCH
+        };
+    }
+
+    /**
+     * Returns the memory budget of the exhaustive search in bytes
+     * @return
+     */
+    public static long getExhaustiveMemoryBudget() {
+        return (long) (Runtime.getRuntime().maxMemory() * 0.8d);
+    }
+
+    /**
+     * Returns the wall-clock timeout of each run in milliseconds
+     * @return
+     */
+    public static long getTimeout() {
+        return 60L * 60L * 1000L;
+    }
+
+    /**
+     * Returns the maximal fraction of each heap pool which may remain in use after garbage
+     * collection, before a run is aborted
+     * @return
+     */
+    public static double getHeapLimit() {
+        return 0.9d;
+    }
+
+    /**
+     * Returns the time limit of the exhaustive search in milliseconds
+     * @return
+     */
+    public static long getExhaustiveTimeLimit() {
+        return 10L * 60L * 1000L;
+    }
+
+    /**
+     * Returns the datasets for which the optimality gap of the heuristics is determined
+     * with an exhaustive search
+     * @return
+     */
+    public static BenchmarkDataset[] getOptimalityGapDatasets() {
+        return new BenchmarkDataset[] {
+                BenchmarkDataset.ADULT,
+                BenchmarkDataset.CUP,
+                BenchmarkDataset.FARS
+        };
+    }
+
+    /**
+     * Returns the number of climbs performed by the local search
+     * @return
+     */
+    public static int getLocalSearchRestarts() {
+        return 10;
+    }
+
+    /**
+     * Returns the seed used by the local search for drawing start nodes
+     * @return
+     */
+    public static long getLocalSearchSeed() {
+        return 0xDEADBEEFL;
+    }
+
+    /**
+     * Returns the size of the tabu list of the local search
+     * @return
+     */
+    public static int getLocalSearchTabuSize() {
+        return 20;
+    }
+
+    /**
+     * Returns the directions of the search compared by <code>BenchmarkDirection</code> for the
+     * given configuration. Searching top-down requires all criteria to be monotonic without
+     * suppression, which excludes d-presence and population uniqueness.
+     * @param criteria
+     * @param suppression
+     * @return
+     */
+    public static SearchDirection[] getSearchDirections(BenchmarkCriterion[] criteria, double suppression) {
+        List<BenchmarkCriterion> list = Arrays.asList(criteria);
+        if (suppression != 0d || list.contains(BenchmarkCriterion.D_PRESENCE) || list.contains(BenchmarkCriterion.RISK_BASED)) {
+            return new SearchDirection[] { SearchDirection.BOTTOM_UP };
+        } else {
+            return new SearchDirection[] { SearchDirection.BOTTOM_UP, SearchDirection.TOP_DOWN, SearchDirection.BIDIRECTIONAL };
+        }
+    }
+
+    /**
+     * Returns the port of the HTTP endpoint of the monitor, 0 if disabled. Can be set with
+     * the system property "anonbench.monitor.port".
+     * @return
+     */
+    public static int getMonitorPort() {
+        return Integer.getInteger("anonbench.monitor.port", 0);
+    }
+
+    /**
+     * Returns the JVM options compared by <code>BenchmarkJVMMatrix</code>. Each entry is run in
+     * a separate virtual machine.
+     * @return
+     */
+    public static String[][] getJVMConfigurations() {
+        return new String[][] {
+                { "-Xmx4G", "-XX:+UseG1GC" },
+                { "-Xmx4G", "-XX:+UseParallelGC" },
+                { "-Xmx4G", "-XX:+UseZGC" },
+                { "-Xmx4G", "-XX:+UseShenandoahGC" },
+                { "-Xmx2G", "-XX:+UseG1GC" },
+                { "-Xmx8G", "-XX:+UseG1GC" },
+                { "-Xmx4G", "-XX:+UseG1GC", "-XX:-UseCompressedOops" },
+                { "-Xmx4G", "-XX:+UseG1GC", "-XX:+UseStringDeduplication" }
+        };
+    }
+
+    /**
+     * Returns the numbers of verdicts of t-closeness cached per distribution of sensitive values,
+     * where 0 disables the cache. The cache changes the execution times of t-closeness, so it is
+     * disabled by default.
+     * @return
+     */
+    public static int[] getClassVerdictCacheSizes() {
+        return new int[] { 0 };
+    }
+
+    /**
+     * Returns whether the cache of risk estimates is shared by all runs within the JVM, such
+     * that algorithms benefit from the estimates of previous runs. In this case, all repetitions
+     * but the first are served by the cache. Set to false for comparing repetitions of cold runs,
+     * e.g. with the bootstrap of <code>BenchmarkAnalysis</code>.
+     * @return
+     */
+    public static boolean isRiskCacheShared() {
+        return true;
+    }
+
+    /**
+     * Returns whether the lattice is bounded by single-attribute minimal levels before the
+     * search. The time required for bounding is part of the execution time and is also reported
+     * separately. Bounding changes the search space, so it is disabled by default.
+     * @return
+     */
+    public static boolean[] getLatticeBounding() {
+        return new boolean[] { false };
+    }
+
+    /**
+     * Returns the number of times each experiment is repeated
+     * @return
+     */
+    public static int getRepetitions() {
+        return 5;
+    }
+
+    /**
+     * Returns the orders in which the successors of a node are checked during a best-first
+     * search. Ordering successors as rollup chains changes how ties are broken, and with it the
+     * solutions found, so only the default order is part of the grid by default.
+     * @return
+     */
+    public static SuccessorOrdering[] getSuccessorOrderings() {
+        return new SuccessorOrdering[] { SuccessorOrdering.DEFAULT };
+    }
+
+    /**
+     * Returns the width of the beam used by the beam search
+     * @return
+     */
+    public static int getBeamWidth() {
+        return 10;
+    }
+
+    /**
+     * Returns the number of threads used by parallel algorithms
+     * @return
+     */
+    public static int getNumThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
     /**
      * Returns a configuration for the ARX framework
      * @param dataset
@@ -176,7 +409,8 @@ public class BenchmarkSetup {
             getConfiguration(BenchmarkCriterion[] criteria,
                              BenchmarkDataset dataset,
                              BenchmarkMetric metric,
-                             double suppression, BenchmarkAlgorithm benchmarkAlgorithm, boolean useDecisionMetric) throws IOException {
+                             double suppression, BenchmarkAlgorithm benchmarkAlgorithm, boolean useDecisionMetric,
+                             int verdictCacheSize) throws IOException {
 
         ARXConfiguration config = ARXConfiguration.create();
         Metric<?> _metric = null;
@@ -189,24 +423,26 @@ public class BenchmarkSetup {
         config.setMetric(_metric);
         config.setMaxOutliers(suppression);
 
+        // Class-based criteria are evaluated cheapest and most selective first
+        CriterionChain chain = new CriterionChain();
         for (BenchmarkCriterion c : criteria) {
             switch (c) {
             case D_PRESENCE:
-                config.addCriterion(new DPresence(0.05d, 0.15d, getResearchSubset(dataset)));
+                config.addCriterion(new ProfiledDPresence(chain, 0.05d, 0.15d, getResearchSubset(dataset)));
                 break;
             case K_ANONYMITY:
-                config.addCriterion(new KAnonymity(5));
+                config.addCriterion(new ProfiledKAnonymity(chain, 5));
                 break;
             case L_DIVERSITY:
                 String sensitive = getSensitiveAttribute(dataset);
-                config.addCriterion(new RecursiveCLDiversity(sensitive, 4, 3));
+                config.addCriterion(new ProfiledRecursiveCLDiversity(chain, sensitive, 4, 3));
                 break;
             case T_CLOSENESS:
                 sensitive = getSensitiveAttribute(dataset);
-                config.addCriterion(new HierarchicalDistanceTCloseness(sensitive, 0.2d, getHierarchy(dataset, sensitive)));
+                config.addCriterion(new ProfiledHierarchicalDistanceTCloseness(chain, sensitive, 0.2d, getHierarchy(dataset, sensitive), verdictCacheSize));
                 break;
             case RISK_BASED:
-                config.addCriterion(new PopulationUniqueness(0.01d, ARXPopulationModel.create(Region.USA)));
+                config.addCriterion(new CachedPopulationUniqueness(0.01d, Region.USA));
                 break;
             default:
                 throw new RuntimeException("Invalid criterion");
@@ -381,28 +617,248 @@ public class BenchmarkSetup {
     }
 
     /**
-     * Returns the research subset for the dataset
+     * Returns the history settings used if no profile has been tuned for a dataset
+     * @return
+     */
+    public static HistorySettings getDefaultHistorySettings() {
+        return new HistorySettings(200, 0.2d, 0.8d, StorageTrigger.DEFAULT);
+    }
+
+    /**
+     * Returns the history settings for the dataset. The settings are loaded from the profile
+     * in <code>data/*_history.properties</code>, if it exists, and the defaults are used otherwise.
+     * Profiles are created by <code>BenchmarkHistory</code> for the local machine and are not
+     * versioned, so the source of the settings is logged.
      * @param dataset
      * @return
      * @throws IOException
      */
-    public static DataSubset getResearchSubset(BenchmarkDataset dataset) throws IOException {
+    public static synchronized HistorySettings getHistorySettings(BenchmarkDataset dataset) throws IOException {
+        HistorySettings result = settings.get(dataset);
+        if (result == null) {
+            File file = new File(getHistorySettingsName(dataset));
+            if (file.exists()) {
+                result = HistorySettings.load(file);
+                System.out.println("History settings for " + dataset + ": " + result + " (loaded from " + file.getPath() + ")");
+            } else {
+                result = getDefaultHistorySettings();
+                System.out.println("History settings for " + dataset + ": " + result + " (defaults)");
+            }
+            settings.put(dataset, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the algorithm with which the profile of a dataset is tuned
+     * @return
+     */
+    public static BenchmarkAlgorithm getHistoryAlgorithm() {
+        return BenchmarkAlgorithm.HEURAKLES;
+    }
+
+    /**
+     * Returns the metric with which the profile of a dataset is tuned
+     * @return
+     */
+    public static BenchmarkMetric getHistoryMetric() {
+        return BenchmarkMetric.AECS;
+    }
+
+    /**
+     * Returns the history settings evaluated when tuning the profile of a dataset
+     * @return
+     */
+    public static HistorySettings[] getHistorySettingsCandidates() {
+        List<HistorySettings> result = new ArrayList<HistorySettings>();
+        for (int historySize : new int[] { 50, 200, 1000 }) {
+            for (double snapshotSizeDataset : new double[] { 0.1d, 0.2d, 0.5d }) {
+                for (double snapshotSizeSnapshot : new double[] { 0.4d, 0.8d }) {
+                    for (StorageTrigger trigger : new StorageTrigger[] { StorageTrigger.ALL, StorageTrigger.NON_ANONYMOUS }) {
+                        result.add(new HistorySettings(historySize, snapshotSizeDataset, snapshotSizeSnapshot, trigger));
+                    }
+                }
+            }
+        }
+        return result.toArray(new HistorySettings[result.size()]);
+    }
+
+    /**
+     * Stores the history settings for the dataset in its profile, which is used by all
+     * subsequent runs
+     * @param dataset
+     * @param _settings
+     * @throws IOException
+     */
+    public static synchronized void setHistorySettings(BenchmarkDataset dataset, HistorySettings _settings) throws IOException {
+        _settings.write(new File(getHistorySettingsName(dataset)));
+        settings.put(dataset, _settings);
+    }
+
+    /**
+     * Returns the research subset for the dataset. The subset is materialized once per dataset
+     * as a bitset over the rows of the dataset, which is persisted in <code>data/*_subset.bits</code>
+     * and kept in memory, such that it is shared by all runs within the JVM. The bitset is
+     * recreated if it is older than the subset or the dataset.
+     * @param dataset
+     * @return
+     * @throws IOException
+     */
+    public static synchronized DataSubset getResearchSubset(BenchmarkDataset dataset) throws IOException {
+
+        DataSubset subset = subsets.get(dataset);
+        if (subset != null) {
+            return subset;
+        }
+
+        File csv = new File(getResearchSubsetName(dataset) + ".csv");
+        File bits = new File(getResearchSubsetName(dataset) + ".bits");
+        File source = new File(getDataName(dataset));
+        int rows;
+        BitSet set;
+
+        // Load or create bitset
+        if (bits.exists() && bits.lastModified() >= csv.lastModified() && bits.lastModified() >= source.lastModified()) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(bits)));
+            try {
+                rows = in.readInt();
+                long[] words = new long[in.readInt()];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = in.readLong();
+                }
+                set = BitSet.valueOf(words);
+            } finally {
+                in.close();
+            }
+        } else {
+            Data data = getData(dataset);
+            int[] array = DataSubset.create(data, Data.create(csv.getPath(), ';')).getArray();
+            rows = data.getHandle().getNumRows();
+            set = new BitSet(rows);
+            for (int row : array) {
+                set.set(row);
+            }
+            long[] words = set.toLongArray();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bits)));
+            try {
+                out.writeInt(rows);
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            } finally {
+                out.close();
+            }
+        }
+
+        // Create subset
+        int[] array = new int[set.cardinality()];
+        int index = 0;
+        for (int row = set.nextSetBit(0); row >= 0; row = set.nextSetBit(row + 1)) {
+            array[index++] = row;
+        }
+        subset = DataSubset.create(rows, array);
+        subsets.put(dataset, subset);
+        return subset;
+    }
+
+    /**
+     * Returns the path of the dataset
+     * @param dataset
+     * @return
+     */
+    private static String getDataName(BenchmarkDataset dataset) {
+        switch (dataset) {
+        case ADULT:
+            return "data/adult.csv";
+        case ATUS:
+            return "data/atus.csv";
+        case CUP:
+            return "data/cup.csv";
+        case FARS:
+            return "data/fars.csv";
+        case IHIS:
+            return "data/ihis.csv";
+        default:
+            throw new RuntimeException("Invalid dataset");
+        }
+    }
+
+    /**
+     * Returns the path of the history settings for the dataset
+     * @param dataset
+     * @return
+     */
+    private static String getHistorySettingsName(BenchmarkDataset dataset) {
         switch (dataset) {
         case ADULT:
-            return DataSubset.create(getData(dataset), Data.create("data/adult_subset.csv", ';'));
+            return "data/adult_history.properties";
         case ATUS:
-            return DataSubset.create(getData(dataset), Data.create("data/atus_subset.csv", ';'));
+            return "data/atus_history.properties";
         case CUP:
-            return DataSubset.create(getData(dataset), Data.create("data/cup_subset.csv", ';'));
+            return "data/cup_history.properties";
         case FARS:
-            return DataSubset.create(getData(dataset), Data.create("data/fars_subset.csv", ';'));
+            return "data/fars_history.properties";
         case IHIS:
-            return DataSubset.create(getData(dataset), Data.create("data/ihis_subset.csv", ';'));
+            return "data/ihis_history.properties";
         default:
             throw new RuntimeException("Invalid dataset");
         }
     }
 
+    /**
+     * Returns the path of the research subset for the dataset, without extension
+     * @param dataset
+     * @return
+     */
+    private static String getResearchSubsetName(BenchmarkDataset dataset) {
+        switch (dataset) {
+        case ADULT:
+            return "data/adult_subset";
+        case ATUS:
+            return "data/atus_subset";
+        case CUP:
+            return "data/cup_subset";
+        case FARS:
+            return "data/fars_subset";
+        case IHIS:
+            return "data/ihis_subset";
+        default:
+            throw new RuntimeException("Invalid dataset");
+        }
+    }
+
+    /**
+     * Returns the stepping variants of each algorithm in the portfolio, where 0 denotes
+     * the default of the respective algorithm
+     * @return
+     */
+    public static int[] getPortfolioSteppings() {
+        return new int[] { 0, 1, 3 };
+    }
+
+    /**
+     * Returns the parameters evaluated by the parameter sweep
+     * @return
+     */
+    public static SweepParameter[] getSweepParameters() {
+        List<SweepParameter> result = new ArrayList<SweepParameter>();
+        for (double suppression : getSuppressionValues()) {
+            for (int k : new int[] { 2, 3, 5, 10, 20, 50, 100 }) {
+                result.add(SweepParameter.createKAnonymity(k, suppression));
+            }
+            for (int l : new int[] { 2, 3, 4, 5 }) {
+                for (double c : new double[] { 3d, 4d }) {
+                    result.add(SweepParameter.createLDiversity(c, l, suppression));
+                }
+            }
+            for (double t : new double[] { 0.1d, 0.15d, 0.2d, 0.3d, 0.5d }) {
+                result.add(SweepParameter.createTCloseness(t, suppression));
+            }
+        }
+        return result.toArray(new SweepParameter[result.size()]);
+    }
+
     /**
      * Returns the sensitive attribute for the dataset
      * @param dataset
@@ -445,6 +901,9 @@ public class BenchmarkSetup {
 
         switch (algorithm) {
         case HEURAKLES:
+        case BEAM_SEARCH:
+        case LOCAL_SEARCH:
+        case EXHAUSTIVE:
             return getMetric(metric);
         case DATAFLY:
             return Metric.createDataFlyMetric();
@@ -0,0 +1,114 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.sweep.EncodedData;
+import org.deidentifier.arx.sweep.ParameterSweep;
+import org.deidentifier.arx.sweep.SweepParameter;
+import org.deidentifier.arx.sweep.SweepResult;
+
+import de.linearbits.subframe.io.CSVFile;
+
+/**
+ * Evaluates the parameters returned by <code>BenchmarkSetup.getSweepParameters()</code> for
+ * each dataset in a single pass over the solution space and writes the optimum for each
+ * parameter to <code>results/sweep.csv</code>. Class statistics are derived by rolling up
+ * the statistics of predecessors, unless the argument <code>--scan</code> is given.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkSweep {
+
+    /**
+     * Main entry point
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Mode
+        boolean rollup = !Arrays.asList(args).contains("--scan");
+
+        // Create csv
+        String[] header = new String[] { "Dataset", "Parameter", "Suppression", "Transformation", "AECS", "Suppressed", "Anonymous transformations" };
+        String[] empty = new String[header.length];
+        Arrays.fill(empty, "");
+        CSVFile csv = new CSVFile(empty, header);
+
+        // For each dataset
+        for (BenchmarkDataset dataset : BenchmarkSetup.getDatasets()) {
+
+            System.out.println("Sweeping: " + dataset.toString());
+
+            // Sweep
+            long time = System.currentTimeMillis();
+            ParameterSweep sweep = new ParameterSweep(getEncodedData(dataset), BenchmarkSetup.getSweepParameters(), rollup);
+            SweepResult[] results = sweep.run();
+            time = System.currentTimeMillis() - time;
+
+            System.out.println(" - Transformations: " + sweep.getNumChecks() + ", parameters: " + results.length + ", time: " + time + " [ms]");
+            System.out.println(" - Distances computed: " + sweep.getNumDistancesComputed() + ", reused: " + sweep.getNumDistancesReused());
+
+            // Store
+            for (SweepResult result : results) {
+                SweepParameter parameter = result.getParameter();
+                boolean found = result.getOptimum() != null;
+                csv.addLine(new String[] { dataset.toString(),
+                                           parameter.toString(),
+                                           String.valueOf(parameter.getSuppression()),
+                                           found ? Arrays.toString(result.getOptimum()) : "NoSolutionFound",
+                                           found ? String.valueOf(result.getCost()) : "",
+                                           found ? String.valueOf(result.getNumSuppressed()) : "",
+                                           String.valueOf(result.getNumAnonymousTransformations()) });
+            }
+
+            // Write results incrementally
+            csv.write(new File("results/sweep.csv"));
+        }
+    }
+
+    /**
+     * Encodes the dataset, its quasi-identifiers and its sensitive attribute
+     * @param dataset
+     * @return
+     * @throws IOException
+     */
+    private static EncodedData getEncodedData(BenchmarkDataset dataset) throws IOException {
+
+        String[] qis = BenchmarkSetup.getQuasiIdentifyingAttributes(dataset);
+        String[][][] hierarchies = new String[qis.length][][];
+        for (int i = 0; i < qis.length; i++) {
+            hierarchies[i] = BenchmarkSetup.getHierarchy(dataset, qis[i]).getHierarchy();
+        }
+        String sensitive = BenchmarkSetup.getSensitiveAttribute(dataset);
+        return new EncodedData(BenchmarkSetup.getData(dataset).getHandle(),
+                               qis,
+                               hierarchies,
+                               sensitive,
+                               BenchmarkSetup.getHierarchy(dataset, sensitive).getHierarchy());
+    }
+}
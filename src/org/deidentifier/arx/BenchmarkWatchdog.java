@@ -0,0 +1,123 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.algorithm.AbstractBenchmarkAlgorithm;
+
+/**
+ * Watches a run and aborts the traversal of its algorithm, if it exceeds a wall-clock timeout or
+ * if the heap remaining after garbage collection falls below a limit. The traversal is aborted
+ * cooperatively at the next check.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkWatchdog {
+
+    /** Reason for aborting runs exceeding the timeout */
+    public static final String                TIMEOUT       = "Timeout";
+    /** Reason for aborting runs exceeding the heap limit */
+    public static final String                OUT_OF_MEMORY = "OutOfMemory";
+    /** The interval in which runs are checked, in milliseconds */
+    private static final long                 INTERVAL      = 100;
+
+    /** The timeout in milliseconds */
+    private final long                        timeout;
+    /** The maximal fraction of each heap pool used after garbage collection */
+    private final double                      heapLimit;
+    /** The executor */
+    private final ScheduledThreadPoolExecutor executor;
+    /** The task watching the current run, may be null */
+    private ScheduledFuture<?>                task;
+
+    /**
+     * Creates a new instance
+     * @param timeout The timeout in milliseconds
+     * @param heapLimit The maximal fraction of each heap pool used after garbage collection
+     */
+    public BenchmarkWatchdog(long timeout, double heapLimit) {
+        this.timeout = timeout;
+        this.heapLimit = heapLimit;
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Watchdog");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts watching a run
+     * @param implementation
+     */
+    public synchronized void start(final AbstractBenchmarkAlgorithm implementation) {
+        stop();
+        final long start = System.currentTimeMillis();
+        task = executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                if (System.currentTimeMillis() - start > timeout) {
+                    implementation.abort(TIMEOUT);
+                } else if (isHeapExhausted()) {
+                    implementation.abort(OUT_OF_MEMORY);
+                }
+            }
+        }, INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching the current run and releases it
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Returns whether any heap pool exceeds the limit after the last garbage collection
+     * @return
+     */
+    private boolean isHeapExhausted() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (usage != null && usage.getMax() > 0 && usage.getUsed() > heapLimit * usage.getMax()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
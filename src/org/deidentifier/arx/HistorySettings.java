@@ -0,0 +1,188 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
+
+/**
+ * The parameters of the history of snapshots maintained by each node checker, which can be
+ * persisted as a profile per dataset
+ *
+ * @author Fabian Prasser
+ */
+public class HistorySettings {
+
+    /**
+     * The storage trigger used by the history
+     */
+    public static enum StorageTrigger {
+        /** The trigger chosen by the algorithm */
+        DEFAULT,
+        /** Store snapshots of all transformations */
+        ALL,
+        /** Store snapshots of non-anonymous transformations only */
+        NON_ANONYMOUS
+    }
+
+    /** Key of the history size */
+    private static final String  KEY_HISTORY_SIZE           = "historySize";
+    /** Key of the snapshot size relative to the dataset */
+    private static final String  KEY_SNAPSHOT_SIZE_DATASET  = "snapshotSizeDataset";
+    /** Key of the snapshot size relative to the predecessor's snapshot */
+    private static final String  KEY_SNAPSHOT_SIZE_SNAPSHOT = "snapshotSizeSnapshot";
+    /** Key of the storage trigger */
+    private static final String  KEY_STORAGE_TRIGGER        = "storageTrigger";
+
+    /**
+     * Loads settings from the given file
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static HistorySettings load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        try {
+            return new HistorySettings(Integer.parseInt(properties.getProperty(KEY_HISTORY_SIZE)),
+                                       Double.parseDouble(properties.getProperty(KEY_SNAPSHOT_SIZE_DATASET)),
+                                       Double.parseDouble(properties.getProperty(KEY_SNAPSHOT_SIZE_SNAPSHOT)),
+                                       StorageTrigger.valueOf(properties.getProperty(KEY_STORAGE_TRIGGER)));
+        } catch (NullPointerException e) {
+            throw new IOException("Incomplete history settings: " + file.getPath());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid history settings: " + file.getPath());
+        }
+    }
+
+    /** The maximal number of snapshots */
+    private final int            historySize;
+    /** The maximal size of a snapshot relative to the dataset */
+    private final double         snapshotSizeDataset;
+    /** The maximal size of a snapshot relative to the predecessor's snapshot */
+    private final double         snapshotSizeSnapshot;
+    /** The storage trigger */
+    private final StorageTrigger storageTrigger;
+
+    /**
+     * Creates new settings
+     * @param historySize
+     * @param snapshotSizeDataset
+     * @param snapshotSizeSnapshot
+     * @param storageTrigger
+     */
+    public HistorySettings(int historySize,
+                           double snapshotSizeDataset,
+                           double snapshotSizeSnapshot,
+                           StorageTrigger storageTrigger) {
+        this.historySize = historySize;
+        this.snapshotSizeDataset = snapshotSizeDataset;
+        this.snapshotSizeSnapshot = snapshotSizeSnapshot;
+        this.storageTrigger = storageTrigger;
+    }
+
+    /**
+     * Returns the maximal number of snapshots
+     * @return
+     */
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Returns the maximal size of a snapshot relative to the dataset
+     * @return
+     */
+    public double getSnapshotSizeDataset() {
+        return snapshotSizeDataset;
+    }
+
+    /**
+     * Returns the maximal size of a snapshot relative to the predecessor's snapshot
+     * @return
+     */
+    public double getSnapshotSizeSnapshot() {
+        return snapshotSizeSnapshot;
+    }
+
+    /**
+     * Returns the storage strategy, null if the algorithm's default should be used
+     * @return
+     */
+    public StorageStrategy getStorageStrategy() {
+        switch (storageTrigger) {
+        case ALL:
+            return History.STORAGE_TRIGGER_ALL;
+        case NON_ANONYMOUS:
+            return History.STORAGE_TRIGGER_NON_ANONYMOUS;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Returns the storage trigger
+     * @return
+     */
+    public StorageTrigger getStorageTrigger() {
+        return storageTrigger;
+    }
+
+    @Override
+    public String toString() {
+        return historySize + "/" + snapshotSizeDataset + "/" + snapshotSizeSnapshot + "/" + storageTrigger;
+    }
+
+    /**
+     * Writes the settings to the given file
+     * @param file
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_HISTORY_SIZE, String.valueOf(historySize));
+        properties.setProperty(KEY_SNAPSHOT_SIZE_DATASET, String.valueOf(snapshotSizeDataset));
+        properties.setProperty(KEY_SNAPSHOT_SIZE_SNAPSHOT, String.valueOf(snapshotSizeSnapshot));
+        properties.setProperty(KEY_STORAGE_TRIGGER, storageTrigger.name());
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            properties.store(out, "History settings");
+        } finally {
+            out.close();
+        }
+    }
+}
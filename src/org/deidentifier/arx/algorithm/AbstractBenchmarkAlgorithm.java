@@ -20,9 +20,17 @@
 
 package org.deidentifier.arx.algorithm;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
 import org.deidentifier.arx.framework.lattice.AbstractLattice;
 import org.deidentifier.arx.framework.lattice.Node;
 import org.deidentifier.arx.metric.InformationLoss;
@@ -33,20 +41,74 @@ import org.deidentifier.arx.metric.InformationLoss;
  */
 public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
 
+    /**
+     * The direction in which the search space is traversed
+     */
+    public static enum SearchDirection {
+        /** Best-first search from the bottom node */
+        BOTTOM_UP,
+        /** Greedy descent from the top node */
+        TOP_DOWN,
+        /** Greedy descent from the top node, followed by a best-first search from the bottom node */
+        BIDIRECTIONAL
+    }
+
+    /**
+     * The order in which the successors of a node are checked
+     */
+    public static enum SuccessorOrdering {
+        /** The order of the lattice */
+        DEFAULT,
+        /** Chains of transformations, each of which generalizes the transformation checked before, if possible */
+        ROLLUP_CHAINS
+    }
+
     /** The maximal size of the priority queue */
-    private static final int MAX_QUEUE_SIZE          = 50000;
+    private static final int                   MAX_QUEUE_SIZE          = 50000;
     /** The property indicating whether a node has been seen and checked already */
-    public static final int  NODE_PROPERTY_COMPLETED = 1 << 20;
+    public static final int                    NODE_PROPERTY_COMPLETED = 1 << 20;
+    /** The number of recently checked nodes considered when ordering successors */
+    private static final int                   RECENT_NODES            = 32;
     /** The number of rollups that could have been performed */
-    protected int            rollups;
+    protected int                              rollups;
     /** The number of checks */
-    protected int            checks;
+    protected int                              checks;
     /** The node checked previously */
-    protected Node           previous;
+    protected Node                             previous;
     /** The hierarchy heights for each QI. */
-    protected int[]          hierarchyHeights;
+    protected int[]                            hierarchyHeights;
     /** The number indicating how often a dfs will be performed */
-    protected int            stepping;
+    protected int                              stepping;
+    /** The optimum shared with other algorithms, may be null */
+    protected SharedOptimum                    shared;
+    /** The direction of the search */
+    private SearchDirection                    direction               = SearchDirection.BOTTOM_UP;
+    /** Whether all criteria are monotonic and no records may be suppressed */
+    private boolean                            monotonic;
+    /** The number of checks performed while searching top-down */
+    private int                                checksTopDown;
+    /** Whether the current search has checked an anonymous node */
+    private boolean                            found;
+    /** Statistics about the snapshots used by the checkers */
+    private final HistoryStatistics            historyStatistics       = new HistoryStatistics();
+    /** The order in which successors are checked */
+    private SuccessorOrdering                  ordering                = SuccessorOrdering.DEFAULT;
+    /** The nodes checked recently, used as a ring buffer */
+    private final Node[]                       recent                  = new Node[RECENT_NODES];
+    /** The position of each node in the sequence of checks, if successors are ordered as rollup chains */
+    private final Map<Node, Integer>           sequence                = new HashMap<Node, Integer>();
+    /** The number of nodes added to the ring buffer */
+    private int                                numRecent;
+    /** The trace to which all checks are written, may be null */
+    private TraceWriter                        trace;
+    /** The queue of the current best-first search, may be null */
+    private volatile MinMaxPriorityQueue<Node> queue;
+    /** The reason for aborting the traversal, null if it is not to be aborted */
+    private volatile String                    abort;
+    /** The value of System.nanoTime() when the first solution has been found */
+    private long                               timeFirstSolution;
+    /** The value of System.nanoTime() when the current optimum has been found */
+    private long                               timeOptimum;
 
     /**
      * Constructor
@@ -61,10 +123,27 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
         }
     }
 
+    /**
+     * Aborts the traversal cooperatively. May be called by other threads. The next check
+     * throws a <code>TraversalAbortedException</code> with the given reason.
+     * @param reason
+     */
+    public void abort(String reason) {
+        this.abort = reason;
+    }
+
     public boolean isMaterializedLatticeRequired() {
         return false;
     };
 
+    /**
+     * Returns statistics about the snapshots used by the checkers
+     * @return
+     */
+    public HistoryStatistics getHistoryStatistics() {
+        return historyStatistics;
+    }
+
     /**
      * Returns the number of checks
      * @return
@@ -73,6 +152,66 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
         return checks;
     }
 
+    /**
+     * Returns the number of checks performed while searching bottom-up
+     * @return
+     */
+    public int getNumChecksBottomUp() {
+        return checks - checksTopDown;
+    }
+
+    /**
+     * Returns the number of checks performed while searching top-down
+     * @return
+     */
+    public int getNumChecksTopDown() {
+        return checksTopDown;
+    }
+
+    /**
+     * Returns the value of System.nanoTime() when the first solution has been found. Only
+     * meaningful if a solution has been found.
+     * @return
+     */
+    public long getTimeFirstSolution() {
+        return timeFirstSolution;
+    }
+
+    /**
+     * Returns the value of System.nanoTime() when the current optimum has been found. Only
+     * meaningful if a solution has been found.
+     * @return
+     */
+    public long getTimeOptimum() {
+        return timeOptimum;
+    }
+
+    /**
+     * Returns the number of quasi-identifiers
+     * @return
+     */
+    public int getNumQuasiIdentifiers() {
+        return hierarchyHeights.length;
+    }
+
+    /**
+     * Returns the maximal size of the priority queue
+     * @return
+     */
+    public int getMaxQueueSize() {
+        return MAX_QUEUE_SIZE;
+    }
+
+    /**
+     * Returns the current size of the priority queue. May be called by other threads, in which
+     * case the result is approximate.
+     * @return
+     */
+    public int getQueueSize() {
+        MinMaxPriorityQueue<Node> _queue = queue;
+        return _queue == null ? 0 : _queue.size();
+    }
+
     /**
      * Returns the number of potential rollups
      * @return
@@ -81,30 +220,187 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
         return rollups;
     }
 
+    /**
+     * Checks the transformations contained in a trace in the recorded order, without searching
+     * the lattice. The trace must have been recorded for the same dataset and configuration.
+     * @param trace
+     * @return The number of checks with a verdict that differs from the recorded verdict, the
+     *         recorded latency and the latency of the replayed checks in nanoseconds
+     * @throws IOException
+     */
+    public long[] replay(TraceReader trace) throws IOException {
+
+        // Index the lattice
+        Map<Long, Node> nodes = new HashMap<Long, Node>();
+        for (Node[] level : lattice.getLevels()) {
+            for (Node node : level) {
+                nodes.put(getKey(node.getTransformation()), node);
+            }
+        }
+
+        // Replay
+        long mismatches = 0;
+        long recorded = 0;
+        long replayed = 0;
+        while (trace.next()) {
+            Node node = nodes.get(getKey(trace.getTransformation()));
+            if (node == null) {
+                throw new RuntimeException("Transformation not contained in lattice: " + Arrays.toString(trace.getTransformation()));
+            }
+            long time = System.nanoTime();
+            INodeChecker.Result result = check(checker, node);
+            replayed += System.nanoTime() - time;
+            recorded += trace.getLatency();
+            record(node, result);
+            if (result.anonymous != trace.isAnonymous()) {
+                mismatches++;
+            }
+        }
+        return new long[] { mismatches, recorded, replayed };
+    }
+
+    /**
+     * Sets the direction of the search. Searching top-down requires all criteria to be monotonic
+     * without suppression. Only then, a non-anonymous top node implies that there is no solution
+     * and the anonymity of nodes may be propagated to entire sub-lattices.
+     * @param direction
+     * @param monotonic
+     */
+    public void setSearchDirection(SearchDirection direction, boolean monotonic) {
+        if (direction != SearchDirection.BOTTOM_UP && !monotonic) {
+            throw new IllegalArgumentException("Searching " + direction + " requires monotonic criteria without suppression");
+        }
+        this.direction = direction;
+        this.monotonic = monotonic;
+    }
+
+    /**
+     * Sets the order in which the successors of a node are checked
+     * @param ordering
+     */
+    public void setSuccessorOrdering(SuccessorOrdering ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * Sets an optimum shared with other algorithms using the same decision metric.
+     * Solutions found are published to it and it is consulted for pruning.
+     * @param shared
+     */
+    public void setSharedOptimum(SharedOptimum shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Sets the storage strategy of the given checker's history, such that requests for
+     * snapshots are counted
+     * @param checker
+     * @param strategy
+     */
+    protected void setStorageTrigger(INodeChecker checker, StorageStrategy strategy) {
+        historyStatistics.setStorageTrigger(checker, strategy);
+    }
+
+    /**
+     * Overrides the storage strategy chosen by the algorithm for the histories of all checkers
+     * @param strategy
+     */
+    public void setStorageStrategy(StorageStrategy strategy) {
+        setStorageTrigger(checker, strategy);
+    }
+
+    /**
+     * Sets a trace to which all checks are written
+     * @param trace
+     */
+    public void setTrace(TraceWriter trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Sets the number indicating how often a dfs will be performed
+     * @param stepping
+     */
+    public void setStepping(int stepping) {
+        this.stepping = stepping > 0 ? stepping : 1;
+    }
+
     /**
      * Performs a check and keeps track of potential rollups
      * @param node
      */
     protected void check(Node node) {
+        record(node, check(checker, node));
+    }
+
+    /**
+     * Checks a node with the given checker and collects statistics about the snapshots used.
+     * Writes the check to the trace, if any.
+     * @param checker
+     * @param node
+     * @return
+     * @throws TraversalAbortedException If the traversal has been aborted
+     */
+    protected INodeChecker.Result check(INodeChecker checker, Node node) {
+
+        String _abort = abort;
+        if (_abort != null) {
+            throw new TraversalAbortedException(_abort);
+        }
 
-        // Check
-        lattice.setChecked(node, checker.check(node));
+        Object event = TraversalEvents.ENABLED ? TraversalEvents.beginCheck() : null;
+        INodeChecker.Result result;
+        if (trace == null) {
+            result = historyStatistics.check(checker, node);
+        } else {
+            long time = System.nanoTime();
+            result = historyStatistics.check(checker, node);
+            trace.write(node.getTransformation(), result, System.nanoTime() - time);
+        }
+        if (TraversalEvents.ENABLED) {
+            Node _previous = previous;
+            TraversalEvents.endCheck(event, node, _previous != null && isGeneralization(node, _previous), result.anonymous);
+        }
+        return result;
+    }
+
+    /**
+     * Stores the result of a check and keeps track of potential rollups
+     * @param node
+     * @param result
+     */
+    protected void record(Node node, INodeChecker.Result result) {
+
+        // Apply
+        Node optimum = getGlobalOptimum();
+        lattice.setChecked(node, result);
         trackOptimum(node);
         checks++;
+        if (getGlobalOptimum() != optimum) {
+            timeOptimum = System.nanoTime();
+            if (optimum == null) {
+                timeFirstSolution = timeOptimum;
+            }
+            if (TraversalEvents.ENABLED) {
+                TraversalEvents.optimum(getGlobalOptimum(), checks);
+            }
+        }
+        found |= node.hasProperty(Node.PROPERTY_ANONYMOUS);
+
+        // Publish
+        if (shared != null && getGlobalOptimum() != null) {
+            shared.offer(getGlobalOptimum());
+        }
 
         // Store
+        recent[numRecent++ % RECENT_NODES] = node;
         if (previous == null) {
             previous = node;
             return;
         }
 
         // Check if successor
-        boolean successor = true;
-        for (int i = 0; i < node.getTransformation().length; i++) {
-            if (node.getTransformation()[i] < previous.getTransformation()[i]) {
-                successor = false;
-            }
-        }
+        boolean successor = isGeneralization(node, previous);
 
         previous = node;
 
@@ -131,6 +427,22 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
         }
     }
     
+    /**
+     * Returns a key identifying the given transformation
+     * @param transformation
+     * @return
+     */
+    private long getKey(int[] transformation) {
+        if (transformation.length != hierarchyHeights.length) {
+            throw new IllegalArgumentException("Transformation has " + transformation.length + " instead of " + hierarchyHeights.length + " attributes");
+        }
+        long key = 0;
+        for (int i = 0; i < transformation.length; i++) {
+            key = key * hierarchyHeights[i] + transformation[i];
+        }
+        return key;
+    }
+
     /**
      * Returns the information loss of the given node
      * @param node
@@ -238,22 +550,73 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
     private void assureChecked(final Node node) {
         if (!node.hasProperty(Node.PROPERTY_CHECKED)) {
             check(node);
+            if (ordering == SuccessorOrdering.ROLLUP_CHAINS) {
+                sequence.put(node, checks);
+            }
         }
     }
 
+    /**
+     * Compares nodes by their information loss. If successors are ordered as rollup chains, ties
+     * are broken in favor of the node checked last, such that the search continues with the
+     * transformation whose snapshot has been created most recently.
+     * @param node
+     * @param other
+     * @return
+     */
+    private int compare(Node node, Node other) {
+        int result = node.getInformationLoss().compareTo(other.getInformationLoss());
+        if (result == 0 && ordering == SuccessorOrdering.ROLLUP_CHAINS) {
+            result = getSequence(other) - getSequence(node);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the given node in the sequence of checks, 0 if not known
+     * @param node
+     * @return
+     */
+    private int getSequence(Node node) {
+        Integer result = sequence.get(node);
+        return result == null ? 0 : result;
+    }
+
     @Override
     public void traverse() {
+        switch (direction) {
+        case TOP_DOWN:
+            traverseTopDown();
+            break;
+        case BIDIRECTIONAL:
+            traverseTopDown();
+            traverseBottomUp();
+            break;
+        default:
+            traverseBottomUp();
+        }
+    }
+
+    /**
+     * Performs a best-first search from the bottom node, which terminates as soon as an
+     * anonymous node has been checked. Nodes whose information loss is not lower than the
+     * information loss of a solution found before are pruned, if the metric allows it.
+     */
+    private void traverseBottomUp() {
 
+        found = false;
         MinMaxPriorityQueue<Node> _queue = new MinMaxPriorityQueue<Node>(MAX_QUEUE_SIZE, new Comparator<Node>() {
             @Override
             public int compare(Node arg0, Node arg1) {
-                return arg0.getInformationLoss().compareTo(arg1.getInformationLoss());
+                return AbstractBenchmarkAlgorithm.this.compare(arg0, arg1);
             }
         });
 
+        queue = _queue;
+
         Node bottom = lattice.getBottom();
         assureChecked(bottom);
-        if (getGlobalOptimum() != null) {
+        if (found) {
             return;
         }
         _queue.add(bottom);
@@ -266,12 +629,17 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
 
                 step++;
                 if (step % stepping == 0) {
-                    dfs(_queue, next);
+                    if (TraversalEvents.ENABLED) {
+                        Object event = TraversalEvents.beginDive();
+                        TraversalEvents.endDive(event, dfs(_queue, next));
+                    } else {
+                        dfs(_queue, next);
+                    }
                 } else {
                     processNode(_queue, next);
                 }
 
-                if (getGlobalOptimum() != null) {
+                if (found) {
                     return;
                 }
             }
@@ -279,18 +647,68 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
 
     }
 
+    /**
+     * Performs a greedy descent from the top node. In each step, all predecessors of the
+     * current node which are not known to be non-anonymous are checked and the descent
+     * continues with the anonymous predecessor with the lowest information loss. The descent
+     * terminates at a node without anonymous predecessors. Each node checked marks its
+     * sub-lattice, such that non-anonymous nodes are not checked again.
+     */
+    private void traverseTopDown() {
+
+        Node node = lattice.getTop();
+        checkTopDown(node);
+        if (!node.hasProperty(Node.PROPERTY_ANONYMOUS)) {
+            return;
+        }
+
+        while (true) {
+            Node next = null;
+            for (Node predecessor : node.getPredecessors()) {
+                if (predecessor.hasProperty(Node.PROPERTY_NOT_ANONYMOUS)) {
+                    continue;
+                }
+                if (!predecessor.hasProperty(Node.PROPERTY_CHECKED)) {
+                    checkTopDown(predecessor);
+                }
+                if (predecessor.hasProperty(Node.PROPERTY_ANONYMOUS) &&
+                    (next == null || predecessor.getInformationLoss().compareTo(next.getInformationLoss()) < 0)) {
+                    next = predecessor;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Checks a node while searching top-down
+     * @param node
+     */
+    private void checkTopDown(Node node) {
+        check(node);
+        checksTopDown++;
+        if (monotonic) {
+            tag(node);
+        }
+    }
+
     /**
      * Performs a dfs starting from the node
      * @param _queue
      * @param node
+     * @return The number of nodes expanded
      */
-    private void dfs(MinMaxPriorityQueue<Node> _queue, Node node) {
+    private int dfs(MinMaxPriorityQueue<Node> _queue, Node node) {
 
         Node nextNode = processNode(_queue, node);
         if (nextNode != null) {
             _queue.remove(nextNode);
-            dfs(_queue, nextNode);
+            return dfs(_queue, nextNode) + 1;
         }
+        return 1;
     }
 
     /**
@@ -302,23 +720,30 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
     private Node processNode(MinMaxPriorityQueue<Node> _queue, Node node) {
 
         Node result = null;
+        Node[] successors = node.getSuccessors(true);
+        if (ordering == SuccessorOrdering.ROLLUP_CHAINS) {
+            successors = getRollupOrder(successors);
+        }
 
-        for (Node successor : node.getSuccessors(true)) {
+        for (Node successor : successors) {
 
-            if (getGlobalOptimum() != null) {
+            if (found) {
                 return null;
             }
 
             if (!successor.hasProperty(NODE_PROPERTY_COMPLETED)) {
                 assureChecked(successor);
                 _queue.add(successor);
-                if (result == null || successor.getInformationLoss().compareTo(result.getInformationLoss()) < 0) {
+                if (result == null || compare(successor, result) < 0) {
                     result = successor;
                 }
             }
 
             while (_queue.size() > MAX_QUEUE_SIZE) {
-                _queue.removeTail();
+                Node evicted = _queue.removeTail();
+                if (TraversalEvents.ENABLED) {
+                    TraversalEvents.eviction(evicted, _queue.size());
+                }
             }
         }
 
@@ -327,12 +752,84 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
         return result;
     }
 
+    /**
+     * Orders the given successors for checking them as part of rollup chains. Successors are
+     * siblings, which cannot generalize each other, so chains are scheduled across levels: the
+     * successor which generalizes the transformation checked last, typically on the previous
+     * level of a dive, is checked first. Together with the tie-breaking of <code>compare()</code>,
+     * which lets the search continue with the node checked last, consecutive levels are linked.
+     * The remaining successors are ordered by how recently one of their predecessors has been
+     * checked, as its snapshot is more likely to be cached. Successors which will not be checked
+     * follow in their original order.
+     * @param successors
+     * @return
+     */
+    private Node[] getRollupOrder(Node[] successors) {
+
+        // Partition
+        final Map<Node, Integer> distances = new HashMap<Node, Integer>();
+        List<Node> pending = new ArrayList<Node>();
+        List<Node> others = new ArrayList<Node>();
+        for (Node successor : successors) {
+            if (successor.hasProperty(NODE_PROPERTY_COMPLETED) || successor.hasProperty(Node.PROPERTY_CHECKED)) {
+                others.add(successor);
+            } else {
+                pending.add(successor);
+                distances.put(successor, getRollupDistance(successor, previous));
+            }
+        }
+
+        // Order, the sort is stable
+        Collections.sort(pending, new Comparator<Node>() {
+            @Override
+            public int compare(Node arg0, Node arg1) {
+                return distances.get(arg0) - distances.get(arg1);
+            }
+        });
+        pending.addAll(others);
+        return pending.toArray(new Node[pending.size()]);
+    }
+
+    /**
+     * Returns 0 if the node generalizes the given last node, i if it generalizes the i-th most
+     * recently checked node and <code>RECENT_NODES + 1</code> otherwise
+     * @param node
+     * @param last
+     * @return
+     */
+    private int getRollupDistance(Node node, Node last) {
+        if (last != null && isGeneralization(node, last)) {
+            return 0;
+        }
+        for (int i = 1; i <= Math.min(numRecent, RECENT_NODES); i++) {
+            if (isGeneralization(node, recent[(numRecent - i) % RECENT_NODES])) {
+                return i;
+            }
+        }
+        return RECENT_NODES + 1;
+    }
+
+    /**
+     * Returns whether the first node generalizes the second node
+     * @param node
+     * @param other
+     * @return
+     */
+    private boolean isGeneralization(Node node, Node other) {
+        for (int i = 0; i < node.getTransformation().length; i++) {
+            if (node.getTransformation()[i] < other.getTransformation()[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns whether we can prune this node
      * @param node
      * @return
      */
-    private boolean prune(Node node) {
+    protected boolean prune(Node node) {
         // A node (and it's direct and indirect successors, respectively) can be pruned if
         // the information loss is monotonic and the nodes's IL is greater or equal than the IL of the
         // global maximum (regardless of the anonymity criterion's monotonicity)
@@ -344,6 +841,12 @@ public abstract class AbstractBenchmarkAlgorithm extends AbstractAlgorithm {
             if (metricMonotonic) prune = node.getInformationLoss().compareTo(getGlobalOptimum().getInformationLoss()) >= 0;
         }
 
+        // Consult the optimum found by other algorithms
+        if (!prune && shared != null && metricMonotonic) {
+            InformationLoss<?> optimum = shared.getInformationLoss();
+            prune = optimum != null && node.getInformationLoss().compareTo(optimum) >= 0;
+        }
+
         return (prune || node.hasProperty(NODE_PROPERTY_COMPLETED));
     }
 }
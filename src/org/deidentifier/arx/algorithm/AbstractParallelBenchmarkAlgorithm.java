@@ -0,0 +1,185 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
+import org.deidentifier.arx.framework.lattice.AbstractLattice;
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * Abstract base class for algorithms which check several nodes concurrently. Each thread
+ * uses its own checker, as checkers are not thread-safe. Results are applied to the lattice
+ * by the calling thread only.
+ *
+ * @author Fabian Prasser
+ */
+public abstract class AbstractParallelBenchmarkAlgorithm extends AbstractBenchmarkAlgorithm {
+
+    /** The checkers, one per thread */
+    protected final INodeChecker[] checkers;
+    /** The executor, created on demand */
+    private ExecutorService        executor;
+
+    /**
+     * Constructor
+     * @param lattice
+     * @param checkers
+     */
+    protected AbstractParallelBenchmarkAlgorithm(AbstractLattice lattice, INodeChecker[] checkers) {
+        super(lattice, checkers[0]);
+        this.checkers = checkers;
+    }
+
+    /**
+     * Checks all nodes which have not been checked yet concurrently
+     * @param nodes
+     */
+    protected void check(Collection<Node> nodes) {
+
+        // Collect
+        List<Node> list = new ArrayList<Node>();
+        for (Node node : nodes) {
+            if (!node.hasProperty(Node.PROPERTY_CHECKED)) {
+                list.add(node);
+            }
+        }
+        if (list.isEmpty()) {
+            return;
+        }
+
+        // Check and apply
+        INodeChecker.Result[] results = check(list, checkers);
+        for (int i = 0; i < results.length; i++) {
+            record(list.get(i), results[i]);
+        }
+    }
+
+    /**
+     * Checks all nodes of the lattice concurrently with all checkers and sequentially with the
+     * first checker, without applying the results, and returns the number of nodes for which
+     * the verdicts differ. Used for testing that the checkers do not share any state.
+     * @return
+     */
+    public int getNumInconsistentVerdicts() {
+        List<Node> list = new ArrayList<Node>();
+        for (Node[] level : lattice.getLevels()) {
+            for (Node node : level) {
+                list.add(node);
+            }
+        }
+        try {
+            INodeChecker.Result[] sequential = check(list, new INodeChecker[] { checkers[0] });
+            INodeChecker.Result[] parallel = check(list, checkers);
+            int result = 0;
+            for (int i = 0; i < sequential.length; i++) {
+                if (sequential[i].anonymous != parallel[i].anonymous || sequential[i].kAnonymous != parallel[i].kAnonymous) {
+                    result++;
+                }
+            }
+            return result;
+        } finally {
+            shutdown();
+        }
+    }
+
+    @Override
+    public void setStorageStrategy(StorageStrategy strategy) {
+        for (INodeChecker _checker : checkers) {
+            setStorageTrigger(_checker, strategy);
+        }
+    }
+
+    /**
+     * Checks the given nodes with the given checkers, concurrently if there are several
+     * @param list
+     * @param checkers
+     * @return The results
+     */
+    private INodeChecker.Result[] check(final List<Node> list, INodeChecker[] checkers) {
+
+        // Sequential
+        final INodeChecker.Result[] results = new INodeChecker.Result[list.size()];
+        if (checkers.length == 1 || list.size() == 1) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = check(checkers[0], list.get(i));
+            }
+
+        // Parallel
+        } else {
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(checkers.length, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            final AtomicInteger next = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < Math.min(checkers.length, results.length); i++) {
+                final INodeChecker _checker = checkers[i];
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        int index;
+                        while ((index = next.getAndIncrement()) < results.length) {
+                            results[index] = check(_checker, list.get(index));
+                        }
+                    }
+                }));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Releases the threads used for checking
+     */
+    protected void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.lattice.AbstractLattice;
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * This class implements a beam search, which proceeds level by level. The successors
+ * of all nodes in the beam are checked concurrently and the non-anonymous successors with
+ * the lowest information loss form the beam for the next level. The width of the beam
+ * controls the trade-off between the quality of the solution and the number of checks.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmBeamSearch extends AbstractParallelBenchmarkAlgorithm {
+
+    /** The width of the beam */
+    private final int width;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param lattice The lattice
+     * @param checkers The checkers, one per thread
+     * @param width The width of the beam
+     */
+    public AlgorithmBeamSearch(AbstractLattice lattice, INodeChecker[] checkers, int width) {
+        super(lattice, checkers);
+        for (INodeChecker _checker : checkers) {
+            setStorageTrigger(_checker, History.STORAGE_TRIGGER_ALL);
+        }
+        this.width = width;
+    }
+
+    @Override
+    public void traverse() {
+
+        try {
+            Node bottom = lattice.getBottom();
+            check(Collections.singletonList(bottom));
+            List<Node> beam = new ArrayList<Node>();
+            if (!bottom.hasProperty(Node.PROPERTY_ANONYMOUS)) {
+                beam.add(bottom);
+            }
+
+            while (!beam.isEmpty()) {
+
+                // Expand
+                Set<Node> candidates = new LinkedHashSet<Node>();
+                for (Node node : beam) {
+                    for (Node successor : node.getSuccessors(true)) {
+                        if (!successor.hasProperty(NODE_PROPERTY_COMPLETED)) {
+                            candidates.add(successor);
+                        }
+                    }
+                    lattice.setProperty(node, NODE_PROPERTY_COMPLETED);
+                }
+                check(candidates);
+
+                // Select
+                beam.clear();
+                for (Node candidate : candidates) {
+                    if (!candidate.hasProperty(Node.PROPERTY_ANONYMOUS) && !prune(candidate)) {
+                        beam.add(candidate);
+                    }
+                }
+                Collections.sort(beam, new Comparator<Node>() {
+                    @Override
+                    public int compare(Node arg0, Node arg1) {
+                        return arg0.getInformationLoss().compareTo(arg1.getInformationLoss());
+                    }
+                });
+                while (beam.size() > width) {
+                    beam.remove(beam.size() - 1);
+                }
+            }
+        } finally {
+            shutdown();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.lattice.AbstractLattice;
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * This class implements an exhaustive search, which checks the lattice level by level,
+ * where the nodes of each level are checked concurrently. If the metric is monotonic, the
+ * successors of anonymous nodes cannot improve upon them and are pruned. The search is
+ * aborted when a time limit or a memory budget for the heap used after garbage collection is
+ * exceeded, in which case the optimum found so far is not guaranteed to be the global optimum.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmExhaustive extends AbstractParallelBenchmarkAlgorithm {
+
+    /** The number of nodes checked between testing the limits */
+    private static final int BATCH_SIZE = 1000;
+
+    /** The time limit in milliseconds */
+    private final long       timeLimit;
+    /** The memory budget in bytes */
+    private final long       memoryBudget;
+    /** Whether the search has been completed */
+    private boolean          complete;
+
+    /**
+     * Creates a new instance
+     * 
+     * @param lattice The lattice
+     * @param checkers The checkers, one per thread
+     * @param timeLimit The time limit in milliseconds
+     * @param memoryBudget The memory budget in bytes
+     */
+    public AlgorithmExhaustive(AbstractLattice lattice, INodeChecker[] checkers, long timeLimit, long memoryBudget) {
+        super(lattice, checkers);
+        for (INodeChecker _checker : checkers) {
+            setStorageTrigger(_checker, History.STORAGE_TRIGGER_NON_ANONYMOUS);
+        }
+        this.timeLimit = timeLimit;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns whether the search has been completed within the limits
+     * @return
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public void traverse() {
+
+        long deadline = System.currentTimeMillis() + timeLimit;
+        boolean pruning = checker.getMetric().isMonotonic() || checker.getConfiguration().getAbsoluteMaxOutliers() == 0;
+        complete = false;
+
+        try {
+            for (Node[] level : lattice.getLevels()) {
+
+                // Check in batches
+                for (int offset = 0; offset < level.length; offset += BATCH_SIZE) {
+
+                    if (System.currentTimeMillis() > deadline || getUsedMemory() > memoryBudget) {
+                        return;
+                    }
+
+                    List<Node> batch = new ArrayList<Node>();
+                    for (int i = offset; i < Math.min(level.length, offset + BATCH_SIZE); i++) {
+                        if (!level[i].hasProperty(Node.PROPERTY_SUCCESSORS_PRUNED)) {
+                            batch.add(level[i]);
+                        }
+                    }
+                    check(batch);
+
+                    // Prune
+                    if (pruning) {
+                        for (Node node : batch) {
+                            if (node.hasProperty(Node.PROPERTY_ANONYMOUS)) {
+                                lattice.setPropertyUpwards(node, false, Node.PROPERTY_SUCCESSORS_PRUNED);
+                            }
+                        }
+                    }
+                }
+            }
+            complete = true;
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Returns the amount of heap used after the most recent garbage collection of each pool,
+     * which, in contrast to the current usage, does not include garbage
+     * @return
+     */
+    private long getUsedMemory() {
+        long used = 0L;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (usage != null) {
+                    used += usage.getUsed();
+                }
+            }
+        }
+        return used;
+    }
+}
@@ -42,7 +42,7 @@ public class AlgorithmHeurakles extends AbstractBenchmarkAlgorithm {
      */
     public AlgorithmHeurakles(AbstractLattice lattice, INodeChecker checker) {
         super(lattice, checker);
-        checker.getHistory().setStorageTrigger(History.STORAGE_TRIGGER_ALL);
+        setStorageTrigger(checker, History.STORAGE_TRIGGER_ALL);
         this.stepping = lattice.getTop().getLevel();
         this.stepping = this.stepping > 0 ? this.stepping : 1;
     }
@@ -0,0 +1,174 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.lattice.AbstractLattice;
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * This class implements a hill-climbing search with a tabu list. In each step, all neighbors
+ * of the current node, i.e. its direct predecessors and successors, are checked concurrently.
+ * From an anonymous node, the search moves to the anonymous neighbor with the lowest
+ * information loss, if it improves upon the current node. From a non-anonymous node, it
+ * moves to the anonymous neighbor with the lowest information loss or, if there is none, to
+ * the successor with the lowest information loss. The first climb starts at the bottom node,
+ * further climbs start at random nodes drawn with a fixed seed.
+ * 
+ * @author Fabian Prasser
+ */
+public class AlgorithmLocalSearch extends AbstractParallelBenchmarkAlgorithm {
+
+    /** The number of climbs */
+    private final int               restarts;
+    /** The size of the tabu list */
+    private final int               tabuSize;
+    /** The random generator */
+    private final Random            random;
+    /** The nodes of the lattice, indexed by their transformation */
+    private final Map<String, Node> nodes = new HashMap<String, Node>();
+
+    /**
+     * Creates a new instance
+     * 
+     * @param lattice The lattice
+     * @param checkers The checkers, one per thread
+     * @param restarts The number of climbs
+     * @param tabuSize The size of the tabu list
+     * @param seed The seed for drawing start nodes
+     */
+    public AlgorithmLocalSearch(AbstractLattice lattice, INodeChecker[] checkers, int restarts, int tabuSize, long seed) {
+        super(lattice, checkers);
+        for (INodeChecker _checker : checkers) {
+            setStorageTrigger(_checker, History.STORAGE_TRIGGER_ALL);
+        }
+        this.restarts = restarts;
+        this.tabuSize = tabuSize;
+        this.random = new Random(seed);
+        for (Node[] level : lattice.getLevels()) {
+            for (Node node : level) {
+                nodes.put(Arrays.toString(node.getTransformation()), node);
+            }
+        }
+    }
+
+    @Override
+    public void traverse() {
+        try {
+            climb(lattice.getBottom());
+            for (int i = 1; i < restarts; i++) {
+                climb(getRandomNode());
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Performs a single climb
+     * @param start
+     */
+    private void climb(Node start) {
+
+        LinkedList<Node> tabu = new LinkedList<Node>();
+        Node current = start;
+        check(Arrays.asList(current));
+
+        while (true) {
+
+            // Collect and check neighbors
+            Set<Node> neighbors = new LinkedHashSet<Node>();
+            for (Node predecessor : current.getPredecessors()) {
+                if (!tabu.contains(predecessor)) {
+                    neighbors.add(predecessor);
+                }
+            }
+            for (Node successor : current.getSuccessors(true)) {
+                if (!tabu.contains(successor)) {
+                    neighbors.add(successor);
+                }
+            }
+            check(neighbors);
+
+            // Select
+            Node next = null;
+            for (Node neighbor : neighbors) {
+                if (neighbor.hasProperty(Node.PROPERTY_ANONYMOUS) && isBetter(neighbor, next)) {
+                    next = neighbor;
+                }
+            }
+            if (current.hasProperty(Node.PROPERTY_ANONYMOUS)) {
+                if (next != null && !isBetter(next, current)) {
+                    next = null;
+                }
+            } else if (next == null) {
+                for (Node successor : current.getSuccessors(true)) {
+                    if (!tabu.contains(successor) && isBetter(successor, next)) {
+                        next = successor;
+                    }
+                }
+            }
+
+            // Move
+            if (next == null) {
+                return;
+            }
+            tabu.add(current);
+            if (tabu.size() > tabuSize) {
+                tabu.removeFirst();
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Returns a random node
+     * @return
+     */
+    private Node getRandomNode() {
+        int[] bottom = lattice.getBottom().getTransformation();
+        int[] transformation = new int[bottom.length];
+        for (int i = 0; i < transformation.length; i++) {
+            transformation[i] = bottom[i] + random.nextInt(hierarchyHeights[i] - bottom[i]);
+        }
+        return nodes.get(Arrays.toString(transformation));
+    }
+
+    /**
+     * Returns whether the first node has a lower information loss than the second node
+     * @param node
+     * @param other May be null
+     * @return
+     */
+    private boolean isBetter(Node node, Node other) {
+        return other == null || node.getInformationLoss().compareTo(other.getInformationLoss()) < 0;
+    }
+}
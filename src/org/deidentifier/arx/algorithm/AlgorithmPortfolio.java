@@ -0,0 +1,162 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * Runs several algorithms concurrently, each on its own lattice and checker. Members using
+ * the same decision metric should share a <code>SharedOptimum</code>, such that each member
+ * can prune with the best solution found by any of them. The portfolio keeps track of the
+ * solution found by each member, of the time at which the member found it and of the time at
+ * which the member found its first solution.
+ *
+ * @author Fabian Prasser
+ */
+public class AlgorithmPortfolio {
+
+    /** The members */
+    private final List<AbstractBenchmarkAlgorithm> members = new ArrayList<AbstractBenchmarkAlgorithm>();
+    /** The names of the members */
+    private final List<String>                     names   = new ArrayList<String>();
+    /** The solution found by each member */
+    private Node[]                                 optima;
+    /** The time at which each member found its solution in nanoseconds, relative to the start */
+    private long[]                                 times;
+    /** The time at which each member found its first solution in nanoseconds, relative to the start */
+    private long[]                                 timesFirstSolution;
+
+    /**
+     * Adds a member
+     * @param name
+     * @param algorithm
+     */
+    public void add(String name, AbstractBenchmarkAlgorithm algorithm) {
+        members.add(algorithm);
+        names.add(name);
+    }
+
+    /**
+     * Returns the index of the member which found a solution first, -1 if there is none
+     * @return
+     */
+    public int getFirst() {
+        int result = -1;
+        for (int i = 0; i < optima.length; i++) {
+            if (optima[i] != null && (result == -1 || timesFirstSolution[i] < timesFirstSolution[result])) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the given member
+     * @param index
+     * @return
+     */
+    public String getName(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * Returns the number of members
+     * @return
+     */
+    public int getNumMembers() {
+        return members.size();
+    }
+
+    /**
+     * Returns the solution found by the given member, null if there is none
+     * @param index
+     * @return
+     */
+    public Node getOptimum(int index) {
+        return optima[index];
+    }
+
+    /**
+     * Returns the time at which the given member found its solution in nanoseconds
+     * @param index
+     * @return
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * Returns the time at which the given member found its first solution in nanoseconds
+     * @param index
+     * @return
+     */
+    public long getTimeFirstSolution(int index) {
+        return timesFirstSolution[index];
+    }
+
+    /**
+     * Executes all members using the given number of threads
+     * @param threads
+     */
+    public void traverse(int threads) {
+
+        final int size = members.size();
+        final long start = System.nanoTime();
+        optima = new Node[size];
+        times = new long[size];
+        timesFirstSolution = new long[size];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < size; i++) {
+                final int index = i;
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        AbstractBenchmarkAlgorithm member = members.get(index);
+                        member.traverse();
+                        optima[index] = member.getGlobalOptimum();
+                        times[index] = member.getTimeOptimum() - start;
+                        timesFirstSolution[index] = member.getTimeFirstSolution() - start;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded min-max-queue without duplicates, which can be accessed by many threads
+ * concurrently. Elements are kept in a lock-free skip list, where elements which are
+ * equal according to the comparator are ordered by insertion. Duplicates are detected
+ * via <code>equals()</code>, which for nodes of a lattice corresponds to the identity of
+ * their transformations. When the capacity is exceeded, the largest elements are evicted.
+ * The size is maintained separately and may deviate from the number of elements while
+ * operations are in progress.
+ *
+ * @author Fabian Prasser
+ *
+ * @param <T>
+ */
+public class ConcurrentMinMaxPriorityQueue<T> {
+
+    /**
+     * An element and its position in the order of insertion
+     *
+     * @param <T>
+     */
+    private static final class Entry<T> {
+
+        /** The element */
+        private final T    element;
+        /** The position in the order of insertion */
+        private final long sequence;
+
+        /**
+         * Creates a new instance
+         * @param element
+         * @param sequence
+         */
+        private Entry(T element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    /** The capacity */
+    private final int                             capacity;
+    /** The entries, ordered */
+    private final ConcurrentSkipListSet<Entry<T>> entries;
+    /** The entry of each element */
+    private final ConcurrentMap<T, Entry<T>>      elements;
+    /** The number of entries */
+    private final AtomicInteger                   size     = new AtomicInteger();
+    /** The next position in the order of insertion */
+    private final AtomicLong                      sequence = new AtomicLong();
+
+    /**
+     * Creates a new instance
+     * @param capacity
+     * @param comparator
+     */
+    public ConcurrentMinMaxPriorityQueue(int capacity, final Comparator<T> comparator) {
+        this.capacity = capacity;
+        this.elements = new ConcurrentHashMap<T, Entry<T>>();
+        this.entries = new ConcurrentSkipListSet<Entry<T>>(new Comparator<Entry<T>>() {
+            @Override
+            public int compare(Entry<T> o1, Entry<T> o2) {
+                int result = comparator.compare(o1.element, o2.element);
+                return result != 0 ? result : (o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1));
+            }
+        });
+    }
+
+    /**
+     * Adds the element, if it is not already contained. Evicts the largest elements
+     * if the capacity is exceeded.
+     * @param element
+     * @return Whether the element has been added
+     */
+    public boolean add(T element) {
+        Entry<T> entry = new Entry<T>(element, sequence.getAndIncrement());
+        if (elements.putIfAbsent(element, entry) != null) {
+            return false;
+        }
+        entries.add(entry);
+        size.incrementAndGet();
+        while (true) {
+            int current = size.get();
+            if (current <= capacity) {
+                break;
+            }
+            if (size.compareAndSet(current, current - 1)) {
+                if (!evict()) {
+                    size.incrementAndGet();
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the queue is empty
+     * @return
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Removes and returns the smallest element, null if the queue is empty
+     * @return
+     */
+    public T poll() {
+        while (true) {
+            Entry<T> entry = entries.pollFirst();
+            if (entry == null) {
+                return null;
+            }
+            size.decrementAndGet();
+            if (elements.remove(entry.element, entry)) {
+                return entry.element;
+            }
+        }
+    }
+
+    /**
+     * Removes the given element
+     * @param element
+     * @return Whether the element has been removed
+     */
+    public boolean remove(T element) {
+        Entry<T> entry = elements.remove(element);
+        if (entry != null && entries.remove(entry)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes and returns the largest element, null if the queue is empty
+     * @return
+     */
+    public T removeTail() {
+        while (true) {
+            Entry<T> entry = entries.pollLast();
+            if (entry == null) {
+                return null;
+            }
+            size.decrementAndGet();
+            if (elements.remove(entry.element, entry)) {
+                return entry.element;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements
+     * @return
+     */
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    /**
+     * Removes the largest element for which the size has already been decremented
+     * @return Whether an element has been removed
+     */
+    private boolean evict() {
+        while (true) {
+            Entry<T> entry = entries.pollLast();
+            if (entry == null) {
+                return false;
+            }
+            if (elements.remove(entry.element, entry)) {
+                return true;
+            }
+            // Entry of an element removed concurrently, which is still accounted for
+            size.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * Collects statistics about the snapshots maintained by the histories of one or more
+ * checkers: whether a check has been served by a snapshot, how many snapshots the storage
+ * strategy requested, how many of them did not increase the size of the history, because
+ * they have been rejected or caused an eviction, and the size of the history. The memory
+ * occupied by snapshots is estimated from the number of classes of the transformations
+ * for which snapshots have been requested, as the history does not expose its snapshots.
+ * All methods are thread-safe, but snapshots dropped are attributed approximately if several
+ * checkers are used concurrently.
+ *
+ * @author Fabian Prasser
+ */
+public class HistoryStatistics {
+
+    /** The number of checks served by a snapshot */
+    private final AtomicLong hits      = new AtomicLong();
+    /** The number of checks not served by a snapshot */
+    private final AtomicLong misses    = new AtomicLong();
+    /** The number of snapshots requested by the storage strategy */
+    private final AtomicLong requested = new AtomicLong();
+    /** The number of requested snapshots which did not increase the size of the history */
+    private final AtomicLong dropped   = new AtomicLong();
+    /** The total length of all snapshots requested */
+    private final AtomicLong length    = new AtomicLong();
+    /** The maximal number of snapshots held by a history */
+    private final AtomicLong peak      = new AtomicLong();
+    /** The number of snapshots currently held by all histories */
+    private final AtomicLong size      = new AtomicLong();
+
+    /**
+     * Performs a check with the given checker and collects statistics about it
+     * @param checker
+     * @param node
+     * @return
+     */
+    public INodeChecker.Result check(INodeChecker checker, Node node) {
+
+        History history = checker.getHistory();
+        long before = history.size();
+        long _requested = requested.get();
+
+        INodeChecker.Result result = checker.check(node);
+
+        // Hits and misses
+        if (history.getTransformation() != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        // Size of the history
+        long after = history.size();
+        size.addAndGet(after - before);
+        if (requested.get() != _requested && after <= before) {
+            dropped.incrementAndGet();
+        }
+        while (true) {
+            long current = peak.get();
+            if (after <= current || peak.compareAndSet(current, after)) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of snapshots which did not increase the size of the history
+     * @return
+     */
+    public long getNumDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the fraction of checks served by a snapshot
+     * @return
+     */
+    public double getHitRate() {
+        long _hits = hits.get();
+        long total = _hits + misses.get();
+        return total == 0 ? 0d : (double) _hits / (double) total;
+    }
+
+    /**
+     * Returns the number of checks served by a snapshot
+     * @return
+     */
+    public long getNumHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of checks not served by a snapshot
+     * @return
+     */
+    public long getNumMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of snapshots requested by the storage strategy
+     * @return
+     */
+    public long getNumRequested() {
+        return requested.get();
+    }
+
+    /**
+     * Returns the maximal number of snapshots held by a history
+     * @return
+     */
+    public long getPeakSize() {
+        return peak.get();
+    }
+
+    /**
+     * Returns an estimate of the memory occupied by the snapshots currently held by all
+     * histories in bytes, based on the average length of the snapshots requested
+     * @return
+     */
+    public long getSnapshotMemory() {
+        long _requested = requested.get();
+        return _requested == 0 ? 0 : size.get() * (length.get() / _requested) * 4L;
+    }
+
+    /**
+     * Installs the given storage strategy for the given checker, such that requests for
+     * snapshots are counted
+     * @param checker
+     * @param strategy
+     */
+    public void setStorageTrigger(final INodeChecker checker, final StorageStrategy strategy) {
+        checker.getHistory().setStorageTrigger(new StorageStrategy() {
+            @Override
+            public boolean isStorageRequired(Node node) {
+                boolean required = strategy.isStorageRequired(node);
+                if (required) {
+                    requested.incrementAndGet();
+                    length.addAndGet((long) checker.getNumberOfGroups() * checker.getConfiguration().getSnapshotLength());
+                }
+                return required;
+            }
+        });
+    }
+}
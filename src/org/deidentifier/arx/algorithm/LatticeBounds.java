@@ -0,0 +1,147 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.deidentifier.arx.criteria.PrivacyCriterion;
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.framework.lattice.AbstractLattice;
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * Derives a lower bound for the generalization level of each quasi-identifier before the
+ * search is performed. For each quasi-identifier, the minimal level at which the attribute
+ * can be generalized while all other attributes are generalized to their maximal level is
+ * determined via binary search. If this transformation does not fulfill the criteria, no
+ * transformation with a lower level for the attribute fulfills them either, as long as all
+ * criteria are monotonic and no records may be suppressed.<br>
+ * <br>
+ * Evaluating pairs of attributes does not yield tighter bounds: a pair excludes all
+ * transformations below both of its levels, which is not a box and can therefore not
+ * be represented by the minimal levels of a lattice.
+ *
+ * @author Fabian Prasser
+ */
+public class LatticeBounds {
+
+    /**
+     * Returns whether bounds can be derived for the given configuration
+     * @param criteria
+     * @param maxOutliers
+     * @return
+     */
+    public static boolean isApplicable(Set<PrivacyCriterion> criteria, int maxOutliers) {
+        if (maxOutliers != 0) {
+            return false;
+        }
+        for (PrivacyCriterion criterion : criteria) {
+            if (!criterion.isMonotonic()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The lattice */
+    private final AbstractLattice   lattice;
+    /** The checker */
+    private final INodeChecker      checker;
+    /** The nodes of the lattice, indexed by their transformation */
+    private final Map<String, Node> nodes = new HashMap<String, Node>();
+    /** The number of checks */
+    private int                     checks;
+
+    /**
+     * Creates a new instance
+     * @param lattice
+     * @param checker
+     */
+    public LatticeBounds(AbstractLattice lattice, INodeChecker checker) {
+        this.lattice = lattice;
+        this.checker = checker;
+        for (Node[] level : lattice.getLevels()) {
+            for (Node node : level) {
+                nodes.put(Arrays.toString(node.getTransformation()), node);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of checks performed
+     * @return
+     */
+    public int getNumChecks() {
+        return checks;
+    }
+
+    /**
+     * Returns the tightened minimal levels. Returns the given levels if the top node
+     * does not fulfill the criteria, in which case there is no solution at all.
+     * @param minLevels
+     * @return
+     */
+    public int[] getMinLevels(int[] minLevels) {
+
+        int[] top = lattice.getTop().getTransformation();
+        int[] result = minLevels.clone();
+        if (!isAnonymous(top)) {
+            return result;
+        }
+
+        for (int qi = 0; qi < top.length; qi++) {
+
+            // Binary search for the lowest anonymous level
+            int[] transformation = top.clone();
+            int low = minLevels[qi];
+            int high = top[qi];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                transformation[qi] = mid;
+                if (isAnonymous(transformation)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            result[qi] = low;
+        }
+        return result;
+    }
+
+    /**
+     * Checks the given transformation
+     * @param transformation
+     * @return
+     */
+    private boolean isAnonymous(int[] transformation) {
+        Node node = nodes.get(Arrays.toString(transformation));
+        if (node == null) {
+            throw new RuntimeException("Transformation not contained in lattice: " + Arrays.toString(transformation));
+        }
+        checks++;
+        return checker.check(node).anonymous;
+    }
+}
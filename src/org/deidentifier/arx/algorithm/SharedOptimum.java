@@ -0,0 +1,72 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.deidentifier.arx.framework.lattice.Node;
+import org.deidentifier.arx.metric.InformationLoss;
+
+/**
+ * Holds the best solution found by any of several algorithms running concurrently with
+ * the same decision metric. Updates are lock-free.
+ *
+ * @author Fabian Prasser
+ */
+public class SharedOptimum {
+
+    /** The optimum */
+    private final AtomicReference<Node> optimum = new AtomicReference<Node>();
+
+    /**
+     * Returns the information loss of the optimum, null if no solution has been found
+     * @return
+     */
+    public InformationLoss<?> getInformationLoss() {
+        Node node = optimum.get();
+        return node == null ? null : node.getInformationLoss();
+    }
+
+    /**
+     * Returns the optimum, null if no solution has been found
+     * @return
+     */
+    public Node getOptimum() {
+        return optimum.get();
+    }
+
+    /**
+     * Offers a solution, which replaces the optimum if its information loss is lower
+     * @param node
+     */
+    public void offer(Node node) {
+        while (true) {
+            Node current = optimum.get();
+            if (current != null && node.getInformationLoss().compareTo(current.getInformationLoss()) >= 0) {
+                return;
+            }
+            if (optimum.compareAndSet(current, node)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Reads a trace file written by a <code>TraceWriter</code>. Records are read one after another,
+ * the fields of the current record are accessed with the getters.
+ *
+ * @author Fabian Prasser
+ */
+public class TraceReader implements Closeable {
+
+    /** The stream */
+    private final DataInputStream in;
+    /** The generalization levels of the current record */
+    private final int[]           transformation;
+    /** The flags of the current record */
+    private int                   flags;
+    /** The information loss of the current record */
+    private double                loss;
+    /** The latency of the current record */
+    private long                  latency;
+
+    /**
+     * Opens a trace file
+     * @param file
+     * @throws IOException
+     */
+    public TraceReader(File file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+        if (in.readInt() != TraceWriter.MAGIC) {
+            in.close();
+            throw new IOException("Not a trace file: " + file);
+        }
+        int version = in.readUnsignedByte();
+        if (version != TraceWriter.VERSION) {
+            in.close();
+            throw new IOException("Unsupported version of trace file: " + version);
+        }
+        this.transformation = new int[in.readUnsignedByte()];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Returns the information loss of the current record, NaN if it was not available
+     * @return
+     */
+    public double getInformationLoss() {
+        return loss;
+    }
+
+    /**
+     * Returns the latency of the check in nanoseconds
+     * @return
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the generalization levels of the current record. The array is reused.
+     * @return
+     */
+    public int[] getTransformation() {
+        return transformation;
+    }
+
+    /**
+     * Returns whether the transformation of the current record is anonymous
+     * @return
+     */
+    public boolean isAnonymous() {
+        return (flags & TraceWriter.FLAG_ANONYMOUS) != 0;
+    }
+
+    /**
+     * Returns whether the transformation of the current record is k-anonymous
+     * @return
+     */
+    public boolean isKAnonymous() {
+        return (flags & TraceWriter.FLAG_K_ANONYMOUS) != 0;
+    }
+
+    /**
+     * Reads the next record
+     * @return Whether a record has been read
+     * @throws IOException
+     */
+    public boolean next() throws IOException {
+        int first;
+        try {
+            first = in.readUnsignedByte();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (transformation.length > 0) {
+            transformation[0] = first;
+            for (int i = 1; i < transformation.length; i++) {
+                transformation[i] = in.readUnsignedByte();
+            }
+            flags = in.readUnsignedByte();
+        } else {
+            flags = first;
+        }
+        loss = in.readDouble();
+        latency = in.readLong();
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.deidentifier.arx.framework.check.INodeChecker;
+import org.deidentifier.arx.metric.InformationLoss;
+
+/**
+ * Writes the sequence of transformations checked by an algorithm to a binary trace file. Each
+ * record consists of the generalization level of each attribute, the verdict, the information
+ * loss and the latency of the check in nanoseconds. Traces can be read with a
+ * <code>TraceReader</code>.
+ *
+ * @author Fabian Prasser
+ */
+public class TraceWriter implements Closeable {
+
+    /** Magic number identifying trace files */
+    static final int               MAGIC            = 0x414E5452;
+    /** Version of the file format */
+    static final int               VERSION          = 1;
+    /** Flag indicating that the transformation is anonymous */
+    static final int               FLAG_ANONYMOUS   = 1;
+    /** Flag indicating that the transformation is k-anonymous */
+    static final int               FLAG_K_ANONYMOUS = 2;
+
+    /** The stream */
+    private final DataOutputStream out;
+    /** The number of attributes */
+    private final int              dimensions;
+    /** The number of records written */
+    private long                   records;
+
+    /**
+     * Creates a new trace file
+     * @param file
+     * @param dimensions The number of attributes
+     * @throws IOException
+     */
+    public TraceWriter(File file, int dimensions) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        this.dimensions = dimensions;
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeByte(dimensions);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Returns the number of records written
+     * @return
+     */
+    public synchronized long getNumRecords() {
+        return records;
+    }
+
+    /**
+     * Writes a record
+     * @param transformation
+     * @param result
+     * @param latency In nanoseconds
+     */
+    public void write(int[] transformation, INodeChecker.Result result, long latency) {
+        write(transformation, result.anonymous, result.kAnonymous, getValue(result.informationLoss), latency);
+    }
+
+    /**
+     * Writes a record
+     * @param transformation
+     * @param anonymous
+     * @param kAnonymous
+     * @param informationLoss NaN if not available
+     * @param latency In nanoseconds
+     */
+    public synchronized void write(int[] transformation, boolean anonymous, boolean kAnonymous, double informationLoss, long latency) {
+        if (transformation.length != dimensions) {
+            throw new IllegalArgumentException("Transformation has " + transformation.length + " instead of " + dimensions + " attributes");
+        }
+        for (int level : transformation) {
+            if (level < 0 || level > 0xFF) {
+                throw new IllegalArgumentException("Level out of range: " + level);
+            }
+        }
+        try {
+            for (int level : transformation) {
+                out.writeByte(level);
+            }
+            out.writeByte((anonymous ? FLAG_ANONYMOUS : 0) | (kAnonymous ? FLAG_K_ANONYMOUS : 0));
+            out.writeDouble(informationLoss);
+            out.writeLong(latency);
+            records++;
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot write trace", e);
+        }
+    }
+
+    /**
+     * Returns the value of the information loss, or NaN if it is not available or not a number
+     * @param loss
+     * @return
+     */
+    private double getValue(InformationLoss<?> loss) {
+        if (loss != null && loss.getValue() instanceof Number) {
+            return ((Number) loss.getValue()).doubleValue();
+        } else {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+/**
+ * Thrown at the next check, if the traversal of an algorithm has been aborted
+ *
+ * @author Fabian Prasser
+ */
+public class TraversalAbortedException extends RuntimeException {
+
+    /** SVUID */
+    private static final long serialVersionUID = 2915469741532084436L;
+
+    /**
+     * Creates a new instance
+     * @param reason
+     */
+    public TraversalAbortedException(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.algorithm;
+
+import java.util.Arrays;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import org.deidentifier.arx.framework.lattice.Node;
+
+/**
+ * Custom JDK Flight Recorder events emitted during the traversal of the search space. Events are
+ * only emitted if the system property "anonbench.jfr" is set to true. Otherwise, all calls are
+ * guarded by a constant, such that they are removed by the JIT compiler and the event classes
+ * are never loaded. Custom events are enabled by default and recorded with, e.g.,
+ * -XX:StartFlightRecording=filename=traversal.jfr
+ *
+ * @author Fabian Prasser
+ */
+public class TraversalEvents {
+
+    /**
+     * A check of a transformation
+     */
+    @Name("org.deidentifier.arx.Check")
+    @Label("Check")
+    @Category({ "AnonBench", "Traversal" })
+    @StackTrace(false)
+    static class CheckEvent extends Event {
+
+        /** The transformation */
+        @Label("Transformation")
+        String  transformation;
+
+        /** Whether the transformation generalizes the transformation checked before */
+        @Label("Potential Rollup")
+        boolean rollup;
+
+        /** Whether the transformation is anonymous */
+        @Label("Anonymous")
+        boolean anonymous;
+    }
+
+    /**
+     * A depth-first dive of the best-first search
+     */
+    @Name("org.deidentifier.arx.Dive")
+    @Label("Dive")
+    @Category({ "AnonBench", "Traversal" })
+    @StackTrace(false)
+    static class DiveEvent extends Event {
+
+        /** The number of nodes expanded */
+        @Label("Depth")
+        int depth;
+    }
+
+    /**
+     * An eviction of a node from the priority queue
+     */
+    @Name("org.deidentifier.arx.Eviction")
+    @Label("Queue Eviction")
+    @Category({ "AnonBench", "Traversal" })
+    @StackTrace(false)
+    static class EvictionEvent extends Event {
+
+        /** The transformation */
+        @Label("Transformation")
+        String transformation;
+
+        /** The size of the queue */
+        @Label("Queue Size")
+        int    size;
+    }
+
+    /**
+     * A new global optimum
+     */
+    @Name("org.deidentifier.arx.Optimum")
+    @Label("Global Optimum")
+    @Description("A transformation with lower information loss has been found")
+    @Category({ "AnonBench", "Traversal" })
+    @StackTrace(false)
+    static class OptimumEvent extends Event {
+
+        /** The transformation */
+        @Label("Transformation")
+        String transformation;
+
+        /** The information loss */
+        @Label("Information Loss")
+        String informationLoss;
+
+        /** The number of checks performed so far */
+        @Label("Checks")
+        int    checks;
+    }
+
+    /** Whether events are emitted */
+    public static final boolean ENABLED = Boolean.getBoolean("anonbench.jfr");
+
+    /**
+     * Begins a check
+     * @return The event
+     */
+    public static Object beginCheck() {
+        CheckEvent event = new CheckEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Begins a dive
+     * @return The event
+     */
+    public static Object beginDive() {
+        DiveEvent event = new DiveEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends a check
+     * @param event
+     * @param node
+     * @param rollup
+     * @param anonymous
+     */
+    public static void endCheck(Object event, Node node, boolean rollup, boolean anonymous) {
+        CheckEvent _event = (CheckEvent) event;
+        _event.end();
+        if (_event.shouldCommit()) {
+            _event.transformation = Arrays.toString(node.getTransformation());
+            _event.rollup = rollup;
+            _event.anonymous = anonymous;
+            _event.commit();
+        }
+    }
+
+    /**
+     * Ends a dive
+     * @param event
+     * @param depth
+     */
+    public static void endDive(Object event, int depth) {
+        DiveEvent _event = (DiveEvent) event;
+        _event.end();
+        if (_event.shouldCommit()) {
+            _event.depth = depth;
+            _event.commit();
+        }
+    }
+
+    /**
+     * Emits an eviction
+     * @param node
+     * @param size
+     */
+    public static void eviction(Node node, int size) {
+        EvictionEvent event = new EvictionEvent();
+        if (event.shouldCommit()) {
+            event.transformation = node == null ? null : Arrays.toString(node.getTransformation());
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emits a new global optimum
+     * @param node
+     * @param checks
+     */
+    public static void optimum(Node node, int checks) {
+        OptimumEvent event = new OptimumEvent();
+        if (event.shouldCommit()) {
+            event.transformation = Arrays.toString(node.getTransformation());
+            event.informationLoss = String.valueOf(node.getInformationLoss());
+            event.checks = checks;
+            event.commit();
+        }
+    }
+}
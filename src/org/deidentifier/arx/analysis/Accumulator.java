@@ -0,0 +1,168 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.analysis;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.deidentifier.arx.analysis.ResultsCube.Aggregate;
+
+/**
+ * Accumulates the values of a group in a single pass. Accumulators can be merged, such that
+ * the values of a group can be consumed incrementally. Optionally, all values are buffered,
+ * e.g. for resampling.
+ *
+ * @author Fabian Prasser
+ */
+public class Accumulator implements Serializable {
+
+    /** SVUID */
+    private static final long serialVersionUID = -3585040410409473427L;
+
+    /** The number of values */
+    private long              count;
+    /** The arithmetic mean */
+    private double            mean;
+    /** The sum of squared differences from the mean */
+    private double            m2;
+    /** The sum of logarithms */
+    private double            log;
+    /** The buffered values, null if values are not buffered */
+    private double[]          values;
+
+    /**
+     * Creates a new instance, which does not buffer values
+     */
+    public Accumulator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new instance
+     * @param buffered Whether values are buffered
+     */
+    public Accumulator(boolean buffered) {
+        this.values = buffered ? new double[8] : null;
+    }
+
+    /**
+     * Adds a value
+     * @param value
+     */
+    public void add(double value) {
+        if (values != null) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length << 1);
+            }
+            values[(int) count] = value;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        log += Math.log(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Accumulator)) {
+            return false;
+        }
+        Accumulator other = (Accumulator) obj;
+        return count == other.count &&
+               Double.doubleToLongBits(mean) == Double.doubleToLongBits(other.mean) &&
+               Double.doubleToLongBits(m2) == Double.doubleToLongBits(other.m2) &&
+               Double.doubleToLongBits(log) == Double.doubleToLongBits(other.log);
+    }
+
+    /**
+     * Returns the value of the given function
+     * @param aggregate
+     * @return
+     */
+    public double get(Aggregate aggregate) {
+        switch (aggregate) {
+        case ARITHMETIC_MEAN:
+            return mean;
+        case STANDARD_DEVIATION:
+            return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0d;
+        case GEOMETRIC_MEAN:
+            return Math.exp(log / count);
+        default:
+            throw new RuntimeException("Invalid aggregate function");
+        }
+    }
+
+    /**
+     * Returns the number of values
+     * @return
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the buffered values
+     * @return
+     */
+    public double[] getValues() {
+        if (values == null) {
+            throw new IllegalStateException("Values are not buffered");
+        }
+        return Arrays.copyOf(values, (int) count);
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = count;
+        bits = 31 * bits + Double.doubleToLongBits(mean);
+        bits = 31 * bits + Double.doubleToLongBits(m2);
+        bits = 31 * bits + Double.doubleToLongBits(log);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    /**
+     * Merges the values of the given accumulator into this accumulator
+     * @param other
+     */
+    public void merge(Accumulator other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (values != null) {
+            double[] _values = other.getValues();
+            if (count + _values.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length << 1, (int) count + _values.length));
+            }
+            System.arraycopy(_values, 0, values, (int) count, _values.length);
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * (double) other.count / (double) total);
+        mean += delta * other.count / total;
+        log += other.log;
+        count = total;
+    }
+}
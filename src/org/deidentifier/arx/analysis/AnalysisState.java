@@ -0,0 +1,290 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * The state of an incremental analysis of a results file. For each registered grouping, the
+ * values of the groups are accumulated. New rows appended to the results file are consumed as
+ * a stream, and the state is reset if the file has been replaced, which is detected with a
+ * checksum of the consumed prefix. Hashes of the aggregates used
+ * for rendering an output are kept, such that outputs are only rendered if their aggregates
+ * have changed. The state is persisted between executions.
+ *
+ * @author Fabian Prasser
+ */
+public class AnalysisState implements Serializable {
+
+    /** SVUID */
+    private static final long                                 serialVersionUID = -7794710235823463641L;
+
+    /**
+     * Loads the state from the given file. Returns an empty state if the file does not exist
+     * or cannot be read.
+     * @param file
+     * @return
+     */
+    public static AnalysisState load(File file) {
+        if (!file.exists()) {
+            return new AnalysisState();
+        }
+        try {
+            ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                return (AnalysisState) in.readObject();
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return new AnalysisState();
+        } catch (ClassNotFoundException e) {
+            return new AnalysisState();
+        }
+    }
+
+    /** The header of the results file */
+    private String                                            header;
+    /** The number of bytes of the results file which have been consumed */
+    private long                                              length;
+    /** The checksum of the bytes of the results file which have been consumed */
+    private long                                              fingerprint;
+    /** The registered groupings, each consisting of a measure, an analyzer and dimensions */
+    private final Map<String, String[]>                       groupings        = new LinkedHashMap<String, String[]>();
+    /** The groupings whose values are buffered */
+    private final Set<String>                                 buffered         = new HashSet<String>();
+    /** The accumulated values of each group for each grouping */
+    private final Map<String, Map<List<String>, Accumulator>> groups           = new HashMap<String, Map<List<String>, Accumulator>>();
+    /** The hashes of the aggregates used for rendering each output */
+    private final Map<String, Integer>                        rendered         = new HashMap<String, Integer>();
+
+    /**
+     * Returns the accumulated values of each group for the given grouping, which must have been
+     * registered, in the order of their first occurrence
+     * @param measure
+     * @param analyzer
+     * @param dimensions
+     * @return
+     */
+    public Map<List<String>, Accumulator> get(String measure, String analyzer, String... dimensions) {
+        Map<List<String>, Accumulator> result = groups.get(getKey(measure, analyzer, dimensions));
+        if (result == null) {
+            throw new IllegalArgumentException("Grouping has not been registered");
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the given output has been rendered from aggregates with the given hash
+     * @param output
+     * @param hash
+     * @return
+     */
+    public boolean isRendered(String output, int hash) {
+        Integer _hash = rendered.get(output);
+        return _hash != null && _hash == hash;
+    }
+
+    /**
+     * Registers a grouping. If the grouping is new, the state is reset, such that all rows are
+     * consumed again.
+     * @param measure
+     * @param analyzer
+     * @param dimensions
+     */
+    public void register(String measure, String analyzer, String... dimensions) {
+        register(false, measure, analyzer, dimensions);
+    }
+
+    /**
+     * Registers a grouping, whose accumulators buffer all values. If the grouping is new or
+     * has not been buffered before, the state is reset, such that all rows are consumed again.
+     * @param measure
+     * @param analyzer
+     * @param dimensions
+     */
+    public void registerBuffered(String measure, String analyzer, String... dimensions) {
+        register(true, measure, analyzer, dimensions);
+    }
+
+    /**
+     * Stores that the given output has been rendered from aggregates with the given hash
+     * @param output
+     * @param hash
+     */
+    public void setRendered(String output, int hash) {
+        rendered.put(output, hash);
+    }
+
+    /**
+     * Consumes all rows which have been appended to the given results file since the last
+     * update and returns their number
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public int update(File file) throws IOException {
+
+        // Consume
+        Checksum checksum = new CRC32();
+        boolean replaced = file.length() < length || update(checksum, file, 0L, length) != fingerprint;
+        ResultsCube cube = ResultsCube.load(file, replaced ? 0L : length);
+        if (header != null && (replaced || !cube.getHeader().equals(header))) {
+            reset();
+            checksum.reset();
+            if (!replaced) {
+                cube = ResultsCube.load(file);
+            }
+        }
+
+        // Accumulate
+        for (Map.Entry<String, String[]> entry : groupings.entrySet()) {
+            String[] grouping = entry.getValue();
+            Map<List<String>, Accumulator> delta = cube.group(grouping[0],
+                                                                    grouping[1],
+                                                                    buffered.contains(entry.getKey()),
+                                                                    Arrays.copyOfRange(grouping, 2, grouping.length));
+            Map<List<String>, Accumulator> _groups = groups.get(entry.getKey());
+            for (Map.Entry<List<String>, Accumulator> group : delta.entrySet()) {
+                Accumulator accumulator = _groups.get(group.getKey());
+                if (accumulator == null) {
+                    _groups.put(group.getKey(), group.getValue());
+                } else {
+                    accumulator.merge(group.getValue());
+                }
+            }
+        }
+
+        // Store
+        fingerprint = update(checksum, file, length, cube.getLength());
+        header = cube.getHeader();
+        length = cube.getLength();
+        return cube.getNumRows();
+    }
+
+    /**
+     * Writes the state to the given file
+     * @param file
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeObject(this);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Registers a grouping
+     * @param _buffered
+     * @param measure
+     * @param analyzer
+     * @param dimensions
+     */
+    private void register(boolean _buffered, String measure, String analyzer, String... dimensions) {
+        String key = getKey(measure, analyzer, dimensions);
+        if (!groupings.containsKey(key) || (_buffered && !buffered.contains(key))) {
+            String[] grouping = new String[dimensions.length + 2];
+            grouping[0] = measure;
+            grouping[1] = analyzer;
+            System.arraycopy(dimensions, 0, grouping, 2, dimensions.length);
+            groupings.put(key, grouping);
+            if (_buffered) {
+                buffered.add(key);
+            }
+            reset();
+        }
+    }
+
+    /**
+     * Updates the checksum with the given range of bytes of the given file and returns its value
+     * @param checksum
+     * @param file
+     * @param from
+     * @param to
+     * @return
+     * @throws IOException
+     */
+    private long update(Checksum checksum, File file, long from, long to) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            in.seek(from);
+            byte[] buffer = new byte[65536];
+            long remaining = to - from;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                checksum.update(buffer, 0, read);
+                remaining -= read;
+            }
+        } finally {
+            in.close();
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Returns the key of a grouping
+     * @param measure
+     * @param analyzer
+     * @param dimensions
+     * @return
+     */
+    private String getKey(String measure, String analyzer, String... dimensions) {
+        return measure + "/" + analyzer + "/" + Arrays.toString(dimensions);
+    }
+
+    /**
+     * Discards all accumulated values
+     */
+    private void reset() {
+        header = null;
+        length = 0L;
+        fingerprint = 0L;
+        groups.clear();
+        for (String key : groupings.keySet()) {
+            groups.put(key, new LinkedHashMap<List<String>, Accumulator>());
+        }
+    }
+}
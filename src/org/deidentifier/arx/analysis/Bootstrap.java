@@ -0,0 +1,180 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.analysis;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A bootstrap engine for comparing the means of samples, e.g. of the execution times measured
+ * in repeated runs. Resamples are drawn in parallel with a fork/join pool. Each block of
+ * resamples uses its own generator, which is seeded with the seed of the engine and the index
+ * of the block, such that results do not depend on the number of threads.
+ *
+ * @author Fabian Prasser
+ */
+public class Bootstrap {
+
+    /**
+     * Draws a range of resamples of one or two samples and stores their means
+     */
+    private static final class Task extends RecursiveAction {
+
+        /** SVUID */
+        private static final long serialVersionUID = -1722637779217451548L;
+
+        /** The samples */
+        private final double[][]  samples;
+        /** The means of the resamples of each sample */
+        private final double[][]  means;
+        /** The seed */
+        private final long        seed;
+        /** The first resample */
+        private final int         from;
+        /** The last resample, exclusive */
+        private final int         to;
+
+        /**
+         * Creates a new instance
+         * @param samples
+         * @param means
+         * @param seed
+         * @param from
+         * @param to
+         */
+        private Task(double[][] samples, double[][] means, long seed, int from, int to) {
+            this.samples = samples;
+            this.means = means;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            // Split
+            if (to - from > BLOCK_SIZE) {
+                int blocks = (to - from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                int mid = from + (blocks / 2) * BLOCK_SIZE;
+                invokeAll(new Task(samples, means, seed, from, mid),
+                          new Task(samples, means, seed, mid, to));
+                return;
+            }
+
+            // Resample
+            Random random = new Random(seed + from / BLOCK_SIZE);
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < samples.length; j++) {
+                    double[] sample = samples[j];
+                    double sum = 0d;
+                    for (int k = 0; k < sample.length; k++) {
+                        sum += sample[random.nextInt(sample.length)];
+                    }
+                    means[j][i] = sum / sample.length;
+                }
+            }
+        }
+    }
+
+    /** The number of resamples drawn by a single task */
+    private static final int          BLOCK_SIZE = 256;
+
+    /** The pool shared by all instances */
+    private static final ForkJoinPool POOL       = new ForkJoinPool();
+
+    /** The number of resamples */
+    private final int                 resamples;
+    /** The confidence level of intervals */
+    private final double              confidence;
+    /** The seed */
+    private final long                seed;
+
+    /**
+     * Creates a new instance
+     * @param resamples
+     * @param confidence
+     * @param seed
+     */
+    public Bootstrap(int resamples, double confidence, long seed) {
+        if (resamples <= 0) {
+            throw new IllegalArgumentException("Number of resamples must be positive");
+        }
+        if (confidence <= 0d || confidence >= 1d) {
+            throw new IllegalArgumentException("Confidence must be in ]0,1[");
+        }
+        this.resamples = resamples;
+        this.confidence = confidence;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the percentile bootstrap confidence interval of the mean of the given sample
+     * as an array containing the lower and the upper bound
+     * @param sample
+     * @return
+     */
+    public double[] getConfidenceInterval(double[] sample) {
+        if (sample.length == 0) {
+            throw new IllegalArgumentException("Sample must not be empty");
+        }
+        double[] means = resample(sample)[0];
+        Arrays.sort(means);
+        double alpha = (1d - confidence) / 2d;
+        return new double[] { means[(int) Math.floor(alpha * (resamples - 1))],
+                              means[(int) Math.ceil((1d - alpha) * (resamples - 1))] };
+    }
+
+    /**
+     * Returns the p-value for the hypothesis that the mean of the first sample is lower than
+     * the mean of the second sample, i.e. the fraction of resamples in which it is not
+     * @param first
+     * @param second
+     * @return
+     */
+    public double getPValue(double[] first, double[] second) {
+        if (first.length == 0 || second.length == 0) {
+            throw new IllegalArgumentException("Samples must not be empty");
+        }
+        double[][] means = resample(first, second);
+        int count = 0;
+        for (int i = 0; i < resamples; i++) {
+            if (means[0][i] >= means[1][i]) {
+                count++;
+            }
+        }
+        return (double) count / (double) resamples;
+    }
+
+    /**
+     * Draws the resamples of the given samples and returns their means
+     * @param samples
+     * @return
+     */
+    private double[][] resample(double[]... samples) {
+        double[][] means = new double[samples.length][resamples];
+        POOL.invoke(new Task(samples, means, seed, 0, resamples));
+        return means;
+    }
+}
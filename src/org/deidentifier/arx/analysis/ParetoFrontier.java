@@ -0,0 +1,88 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.analysis;
+
+/**
+ * Determines the Pareto frontier of a set of configurations, which are compared by several
+ * objectives that are all to be minimized, e.g. information loss and execution time. A
+ * configuration is on the frontier, if no other configuration is at least as good in all
+ * objectives and better in at least one.
+ *
+ * @author Fabian Prasser
+ */
+public class ParetoFrontier {
+
+    /**
+     * Returns whether the configurations are on the Pareto frontier. Configurations for which
+     * any objective is NaN are never on the frontier.
+     * 
+     * @param objectives The values of each objective for each configuration
+     * @return
+     */
+    public static boolean[] getFrontier(double[]... objectives) {
+
+        if (objectives.length == 0) {
+            throw new IllegalArgumentException("No objectives specified");
+        }
+        int size = objectives[0].length;
+        for (double[] objective : objectives) {
+            if (objective.length != size) {
+                throw new IllegalArgumentException("Objectives must have the same number of values");
+            }
+        }
+
+        // Check all pairs
+        boolean[] result = new boolean[size];
+        outer: for (int i = 0; i < size; i++) {
+            for (double[] objective : objectives) {
+                if (Double.isNaN(objective[i])) {
+                    continue outer;
+                }
+            }
+            for (int j = 0; j < size; j++) {
+                if (i != j && isDominated(objectives, i, j)) {
+                    continue outer;
+                }
+            }
+            result[i] = true;
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the first configuration is dominated by the second configuration
+     * @param objectives
+     * @param first
+     * @param second
+     * @return
+     */
+    private static boolean isDominated(double[][] objectives, int first, int second) {
+        boolean better = false;
+        for (double[] objective : objectives) {
+            if (Double.isNaN(objective[second]) || objective[second] > objective[first]) {
+                return false;
+            }
+            better |= objective[second] < objective[first];
+        }
+        return better;
+    }
+}
@@ -0,0 +1,563 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.analysis;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.linearbits.subframe.analyzer.Analyzer;
+
+/**
+ * An in-memory, columnar representation of a results file written by SUBFRAME. The file is
+ * parsed once. Columns without a measure are dimensions, such as the algorithm or the dataset,
+ * whose values are dictionary-encoded. All other columns are parsed as numbers, where values
+ * which are not numeric, such as "NoSolutionFound", are ignored. Selections are views sharing
+ * the columns and are computed from inverted indices, which are built on demand.
+ *
+ * @author Fabian Prasser
+ */
+public class ResultsCube {
+
+    /**
+     * An aggregate function
+     */
+    public static enum Aggregate {
+        /** The arithmetic mean */
+        ARITHMETIC_MEAN(Analyzer.ARITHMETIC_MEAN),
+        /** The sample standard deviation */
+        STANDARD_DEVIATION(Analyzer.STANDARD_DEVIATION),
+        /** The geometric mean */
+        GEOMETRIC_MEAN(Analyzer.GEOMETRIC_MEAN);
+
+        /** The label */
+        private final String label;
+
+        /**
+         * Creates a new instance
+         * @param label
+         */
+        private Aggregate(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the label used by SUBFRAME for this function
+         * @return
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** The separator used by SUBFRAME */
+    private static final char    SEPARATOR = ';';
+    /** The charset of results files */
+    private static final Charset CHARSET   = Charset.forName("UTF-8");
+
+    /**
+     * Parses the given results file
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static ResultsCube load(File file) throws IOException {
+        return load(file, 0L);
+    }
+
+    /**
+     * Parses the rows of the given results file starting at the given offset in bytes, which
+     * must have been returned by <code>getLength()</code> for a previous cube of the same file.
+     * Incomplete rows at the end of the file are not consumed.
+     * @param file
+     * @param offset
+     * @return
+     * @throws IOException
+     */
+    public static ResultsCube load(File file, long offset) throws IOException {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+        try {
+
+            // Header
+            String line1 = reader.readLine();
+            String line2 = reader.readLine();
+            if (line1 == null || line2 == null) {
+                throw new IOException("Invalid results file: " + file.getPath());
+            }
+            String[] header1 = split(line1);
+            String[] header2 = split(line2);
+            long length = getLength(line1) + getLength(line2);
+            if (offset > length) {
+                reader.close();
+                FileInputStream in = new FileInputStream(file);
+                reader = new BufferedReader(new InputStreamReader(in, CHARSET));
+                long skipped = 0;
+                while (skipped < offset) {
+                    long _skipped = in.skip(offset - skipped);
+                    if (_skipped <= 0) {
+                        throw new IOException("Invalid offset: " + offset);
+                    }
+                    skipped += _skipped;
+                }
+                length = offset;
+            }
+
+            List<String> dimensions = new ArrayList<String>();
+            List<String> measures = new ArrayList<String>();
+            int[] columns = new int[header2.length];
+            for (int i = 0; i < header2.length; i++) {
+                if (i >= header1.length || header1[i].length() == 0) {
+                    columns[i] = dimensions.size();
+                    dimensions.add(header2[i]);
+                } else {
+                    columns[i] = -1 - measures.size();
+                    measures.add(getKey(header1[i], header2[i]));
+                }
+            }
+
+            // Columns
+            int capacity = 1024;
+            int[][] codes = new int[dimensions.size()][capacity];
+            double[][] values = new double[measures.size()][capacity];
+            List<Map<String, Integer>> encodings = new ArrayList<Map<String, Integer>>();
+            for (int i = 0; i < dimensions.size(); i++) {
+                encodings.add(new HashMap<String, Integer>());
+            }
+
+            // Rows
+            int rows = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = split(line);
+                if (fields.length < columns.length) {
+                    break;
+                }
+                length += getLength(line);
+                if (rows == capacity) {
+                    capacity <<= 1;
+                    for (int i = 0; i < codes.length; i++) {
+                        codes[i] = Arrays.copyOf(codes[i], capacity);
+                    }
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = Arrays.copyOf(values[i], capacity);
+                    }
+                }
+                for (int i = 0; i < columns.length; i++) {
+                    String field = fields[i];
+                    if (columns[i] >= 0) {
+                        Map<String, Integer> encoding = encodings.get(columns[i]);
+                        Integer code = encoding.get(field);
+                        if (code == null) {
+                            code = encoding.size();
+                            encoding.put(field, code);
+                        }
+                        codes[columns[i]][rows] = code;
+                    } else {
+                        values[-1 - columns[i]][rows] = parse(field);
+                    }
+                }
+                rows++;
+            }
+
+            // Dictionaries
+            String[][] dictionaries = new String[dimensions.size()][];
+            for (int i = 0; i < dictionaries.length; i++) {
+                dictionaries[i] = new String[encodings.get(i).size()];
+                for (Map.Entry<String, Integer> entry : encodings.get(i).entrySet()) {
+                    dictionaries[i][entry.getValue()] = entry.getKey();
+                }
+            }
+
+            // Measures
+            Map<String, double[]> _measures = new HashMap<String, double[]>();
+            for (int i = 0; i < values.length; i++) {
+                _measures.put(measures.get(i), values[i]);
+            }
+
+            return new ResultsCube(dimensions.toArray(new String[dimensions.size()]),
+                                   codes,
+                                   dictionaries,
+                                   encodings,
+                                   _measures,
+                                   new int[dimensions.size()][][],
+                                   rows,
+                                   null,
+                                   line1 + '\n' + line2,
+                                   length);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the length of the given line in bytes, including the line break
+     * @param line
+     * @return
+     */
+    private static long getLength(String line) {
+        return line.getBytes(CHARSET).length + 1;
+    }
+
+    /**
+     * Returns the key of a measure column
+     * @param measure
+     * @param analyzer
+     * @return
+     */
+    private static String getKey(String measure, String analyzer) {
+        return measure + SEPARATOR + analyzer;
+    }
+
+    /**
+     * Parses a number, returns NaN if the value is not numeric
+     * @param value
+     * @return
+     */
+    private static double parse(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Splits a line into its fields
+     * @param line
+     * @return
+     */
+    private static String[] split(String line) {
+        List<String> result = new ArrayList<String>();
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == SEPARATOR) {
+                result.add(line.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(line.substring(start));
+        return result.toArray(new String[result.size()]);
+    }
+
+    /** The names of the dimensions */
+    private final String[]                   dimensions;
+    /** The codes of the values of each dimension for each row */
+    private final int[][]                    codes;
+    /** The values of each dimension, indexed by code */
+    private final String[][]                 dictionaries;
+    /** The codes of the values of each dimension */
+    private final List<Map<String, Integer>> encodings;
+    /** The values of each measure for each row */
+    private final Map<String, double[]>      measures;
+    /** The rows containing each value of each dimension, built on demand and shared by all views */
+    private final int[][][]                  index;
+    /** The number of rows in the file */
+    private final int                        numRows;
+    /** The selected rows, sorted, null if all rows are selected */
+    private final int[]                      rows;
+    /** The header of the results file */
+    private final String                     header;
+    /** The number of bytes of the results file which have been consumed */
+    private final long                       length;
+
+    /**
+     * Creates a new instance
+     * @param dimensions
+     * @param codes
+     * @param dictionaries
+     * @param encodings
+     * @param measures
+     * @param index
+     * @param numRows
+     * @param rows
+     * @param header
+     * @param length
+     */
+    private ResultsCube(String[] dimensions,
+                        int[][] codes,
+                        String[][] dictionaries,
+                        List<Map<String, Integer>> encodings,
+                        Map<String, double[]> measures,
+                        int[][][] index,
+                        int numRows,
+                        int[] rows,
+                        String header,
+                        long length) {
+        this.dimensions = dimensions;
+        this.codes = codes;
+        this.dictionaries = dictionaries;
+        this.encodings = encodings;
+        this.measures = measures;
+        this.index = index;
+        this.numRows = numRows;
+        this.rows = rows;
+        this.header = header;
+        this.length = length;
+    }
+
+    /**
+     * Aggregates the values of the given measure for each combination of values of the given
+     * dimensions. Groups are returned in the order of their first occurrence.
+     * @param measure
+     * @param analyzer The label of the analyzer of the measure, e.g. <code>Analyzer.ARITHMETIC_MEAN</code>
+     * @param aggregate
+     * @param dimensions
+     * @return
+     */
+    public Map<List<String>, Double> aggregate(String measure, String analyzer, Aggregate aggregate, String... dimensions) {
+        Map<List<String>, Double> result = new LinkedHashMap<List<String>, Double>();
+        for (Map.Entry<List<String>, Accumulator> entry : group(measure, analyzer, dimensions).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get(aggregate));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the header of the results file
+     * @return
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the number of bytes of the results file which have been consumed
+     * @return
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Accumulates the values of the given measure for each combination of values of the given
+     * dimensions. Groups are returned in the order of their first occurrence.
+     * @param measure
+     * @param analyzer The label of the analyzer of the measure, e.g. <code>Analyzer.ARITHMETIC_MEAN</code>
+     * @param dimensions
+     * @return
+     */
+    public Map<List<String>, Accumulator> group(String measure, String analyzer, String... dimensions) {
+        return group(measure, analyzer, false, dimensions);
+    }
+
+    /**
+     * Accumulates the values of the given measure for each combination of values of the given
+     * dimensions. Groups are returned in the order of their first occurrence.
+     * @param measure
+     * @param analyzer The label of the analyzer of the measure, e.g. <code>Analyzer.ARITHMETIC_MEAN</code>
+     * @param buffered Whether the accumulators buffer all values
+     * @param dimensions
+     * @return
+     */
+    public Map<List<String>, Accumulator> group(String measure, String analyzer, boolean buffered, String... dimensions) {
+
+        double[] values = measures.get(getKey(measure, analyzer));
+        if (values == null) {
+            throw new IllegalArgumentException("Unknown measure: " + measure + " / " + analyzer);
+        }
+        int[] _dimensions = new int[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            _dimensions[i] = getDimension(dimensions[i]);
+        }
+
+        // Group
+        Map<Long, Accumulator> groups = new LinkedHashMap<Long, Accumulator>();
+        int size = getNumRows();
+        for (int i = 0; i < size; i++) {
+            int row = rows == null ? i : rows[i];
+            double value = values[row];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            long key = 0;
+            for (int dimension : _dimensions) {
+                key = key * dictionaries[dimension].length + codes[dimension][row];
+            }
+            Accumulator accumulator = groups.get(key);
+            if (accumulator == null) {
+                accumulator = new Accumulator(buffered);
+                groups.put(key, accumulator);
+            }
+            accumulator.add(value);
+        }
+
+        // Decode
+        Map<List<String>, Accumulator> result = new LinkedHashMap<List<String>, Accumulator>();
+        for (Map.Entry<Long, Accumulator> entry : groups.entrySet()) {
+            long key = entry.getKey();
+            String[] group = new String[_dimensions.length];
+            for (int i = _dimensions.length - 1; i >= 0; i--) {
+                int cardinality = dictionaries[_dimensions[i]].length;
+                group[i] = dictionaries[_dimensions[i]][(int) (key % cardinality)];
+                key /= cardinality;
+            }
+            result.put(Arrays.asList(group), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names of all dimensions
+     * @return
+     */
+    public String[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /**
+     * Returns the number of selected rows
+     * @return
+     */
+    public int getNumRows() {
+        return rows == null ? numRows : rows.length;
+    }
+
+    /**
+     * Returns the values of the given dimension contained in the selected rows, in the order
+     * of their first occurrence
+     * @param dimension
+     * @return
+     */
+    public List<String> getValues(String dimension) {
+        int _dimension = getDimension(dimension);
+        boolean[] contained = new boolean[dictionaries[_dimension].length];
+        List<Integer> order = new ArrayList<Integer>();
+        int size = getNumRows();
+        for (int i = 0; i < size; i++) {
+            int code = codes[_dimension][rows == null ? i : rows[i]];
+            if (!contained[code]) {
+                contained[code] = true;
+                order.add(code);
+            }
+        }
+        List<String> result = new ArrayList<String>();
+        for (int code : order) {
+            result.add(dictionaries[_dimension][code]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the results contain the given dimension
+     * @param dimension
+     * @return
+     */
+    public boolean hasDimension(String dimension) {
+        return Arrays.asList(dimensions).contains(dimension);
+    }
+
+    /**
+     * Returns whether the results contain the given measure
+     * @param measure
+     * @param analyzer
+     * @return
+     */
+    public boolean hasMeasure(String measure, String analyzer) {
+        return measures.containsKey(getKey(measure, analyzer));
+    }
+
+    /**
+     * Returns a view containing the selected rows in which the given dimension has the given value
+     * @param dimension
+     * @param value
+     * @return
+     */
+    public ResultsCube select(String dimension, String value) {
+
+        int _dimension = getDimension(dimension);
+        Integer code = encodings.get(_dimension).get(value);
+        int[] matches = code == null ? new int[0] : getIndex(_dimension)[code];
+
+        // Intersect
+        int[] result;
+        if (rows == null) {
+            result = matches;
+        } else {
+            result = new int[Math.min(rows.length, matches.length)];
+            int size = 0;
+            for (int i = 0, j = 0; i < rows.length && j < matches.length;) {
+                if (rows[i] < matches[j]) {
+                    i++;
+                } else if (rows[i] > matches[j]) {
+                    j++;
+                } else {
+                    result[size++] = rows[i];
+                    i++;
+                    j++;
+                }
+            }
+            result = Arrays.copyOf(result, size);
+        }
+        return new ResultsCube(dimensions, codes, dictionaries, encodings, measures, index, numRows, result, header, length);
+    }
+
+    /**
+     * Returns the index of the given dimension
+     * @param dimension
+     * @return
+     */
+    private int getDimension(String dimension) {
+        for (int i = 0; i < dimensions.length; i++) {
+            if (dimensions[i].equals(dimension)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dimension: " + dimension);
+    }
+
+    /**
+     * Returns the sorted rows containing each value of the given dimension
+     * @param dimension
+     * @return
+     */
+    private int[][] getIndex(int dimension) {
+        synchronized (index) {
+            if (index[dimension] == null) {
+                int[] counts = new int[dictionaries[dimension].length];
+                for (int row = 0; row < numRows; row++) {
+                    counts[codes[dimension][row]]++;
+                }
+                int[][] postings = new int[counts.length][];
+                for (int i = 0; i < counts.length; i++) {
+                    postings[i] = new int[counts[i]];
+                    counts[i] = 0;
+                }
+                for (int row = 0; row < numRows; row++) {
+                    int code = codes[dimension][row];
+                    postings[code][counts[code]++] = row;
+                }
+                index[dimension] = postings;
+            }
+            return index[dimension];
+        }
+    }
+}
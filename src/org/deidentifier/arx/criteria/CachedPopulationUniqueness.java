@@ -0,0 +1,70 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.criteria;
+
+import org.deidentifier.arx.ARXPopulationModel;
+import org.deidentifier.arx.ARXPopulationModel.Region;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyDistribution;
+
+/**
+ * Population uniqueness, where the results of the risk estimates are memoized in the
+ * shared <code>RiskEstimateCache</code>. The estimate only depends on the distribution
+ * of class sizes, which is identical for many transformations.
+ *
+ * @author Fabian Prasser
+ */
+public class CachedPopulationUniqueness extends PopulationUniqueness {
+
+    /** SVUID */
+    private static final long serialVersionUID = 6581742532154092713L;
+
+    /** The parameters of the estimate, used as part of the cache key */
+    private final String      parameters;
+
+    /**
+     * Creates a new instance
+     * @param riskThreshold
+     * @param region
+     */
+    public CachedPopulationUniqueness(double riskThreshold, Region region) {
+        super(riskThreshold, ARXPopulationModel.create(region));
+        this.parameters = region.name() + "/" + riskThreshold;
+    }
+
+    @Override
+    protected boolean isFulfilled(HashGroupifyDistribution distribution) {
+
+        int[] histogram = distribution.getHistogram().getHistogram();
+        RiskEstimateCache cache = RiskEstimateCache.getInstance();
+
+        // Hit
+        Boolean result = cache.get(histogram, parameters);
+        if (result != null) {
+            return result;
+        }
+
+        // Miss
+        long time = System.nanoTime();
+        boolean fulfilled = super.isFulfilled(distribution);
+        cache.put(histogram, parameters, fulfilled, System.nanoTime() - time);
+        return fulfilled;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.criteria;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.deidentifier.arx.framework.check.distribution.Distribution;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+
+/**
+ * Memoizes the verdicts of a criterion, which only depends on the distributions of sensitive
+ * values within a class. When a transformation is checked by rolling up a snapshot of a
+ * predecessor, the framework merges the distributions of all classes which are combined,
+ * while all other classes keep their distributions. Their verdicts, e.g. the earth mover's
+ * distances required for t-closeness, are reused instead of being recomputed. The cache is
+ * a bounded LRU cache. Hits and misses are counted for all instances within the JVM.
+ *
+ * @author Fabian Prasser
+ */
+public class ClassVerdictCache implements Serializable {
+
+    /**
+     * Key of an entry: the distributions of a class, sorted by value
+     */
+    private static final class Key implements Serializable {
+
+        /** SVUID */
+        private static final long serialVersionUID = 2209318127734453620L;
+
+        /** The distributions */
+        private final int[]       distributions;
+        /** The hash code */
+        private final int         hash;
+
+        /**
+         * Creates a new instance
+         * @param distributions
+         */
+        private Key(int[] distributions) {
+            this.distributions = distributions;
+            this.hash = Arrays.hashCode(distributions);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return Arrays.equals(distributions, ((Key) obj).distributions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** SVUID */
+    private static final long       serialVersionUID = -3260585166460948071L;
+
+    /** The number of cache hits of all instances */
+    private static final AtomicLong HITS             = new AtomicLong();
+    /** The number of cache misses of all instances */
+    private static final AtomicLong MISSES           = new AtomicLong();
+
+    /**
+     * Returns the number of cache hits of all instances
+     * @return
+     */
+    public static long getNumHits() {
+        return HITS.get();
+    }
+
+    /**
+     * Returns the number of cache misses of all instances
+     * @return
+     */
+    public static long getNumMisses() {
+        return MISSES.get();
+    }
+
+    /** The cached verdicts */
+    private final Map<Key, Boolean> verdicts;
+
+    /**
+     * Creates a new instance
+     * @param capacity
+     */
+    public ClassVerdictCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.verdicts = new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 5120497253342302414L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached verdict for the given key, null if there is none
+     * @param key
+     * @return
+     */
+    public synchronized Boolean get(int[] key) {
+        Boolean result = verdicts.get(new Key(key));
+        if (result != null) {
+            HITS.incrementAndGet();
+        } else {
+            MISSES.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key of the given class. The buckets of a distribution depend on the order
+     * in which values have been added, so the pairs of values and frequencies are sorted.
+     * @param entry
+     * @return
+     */
+    public int[] getKey(HashGroupifyEntry entry) {
+
+        // Size
+        int size = 0;
+        for (Distribution distribution : entry.distributions) {
+            size += 1 + 2 * distribution.size();
+        }
+
+        // Collect
+        int[] result = new int[size];
+        int offset = 0;
+        long[] pairs = new long[0];
+        for (Distribution distribution : entry.distributions) {
+            int[] buckets = distribution.getBuckets();
+            if (pairs.length < distribution.size()) {
+                pairs = new long[distribution.size()];
+            }
+            int count = 0;
+            for (int i = 0; i < buckets.length; i += 2) {
+                if (buckets[i] != -1) {
+                    pairs[count++] = ((long) buckets[i] << 32) | (buckets[i + 1] & 0xFFFFFFFFL);
+                }
+            }
+            Arrays.sort(pairs, 0, count);
+            result[offset++] = count;
+            for (int i = 0; i < count; i++) {
+                result[offset++] = (int) (pairs[i] >>> 32);
+                result[offset++] = (int) pairs[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores a verdict
+     * @param key
+     * @param verdict
+     */
+    public synchronized void put(int[] key, boolean verdict) {
+        verdicts.put(new Key(key), verdict);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.criteria;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+
+/**
+ * The class-based criteria of a configuration. When one of the criteria is evaluated for a
+ * class, all criteria which are ranked before it by the <code>CriterionProfile</code> are
+ * evaluated first, and the evaluation stops as soon as one of them rejects the class. Thus,
+ * expensive criteria are skipped for classes that are rejected by cheap and selective ones,
+ * independently of the order in which the criteria are evaluated by the framework. Results
+ * are memoized per class, such that each criterion is evaluated at most once for each class.
+ * A chain is shared by all checkers of a configuration, so the memo is confined to the
+ * evaluating thread and statistics are collected atomically. The memo is cleared when the
+ * chain is flushed, such that it does not retain the classes of a finished run.
+ *
+ * @author Fabian Prasser
+ */
+public class CriterionChain implements Serializable {
+
+    /**
+     * The classes for which the criteria have been evaluated last by a thread
+     */
+    private static final class Memo {
+
+        /** The class for which each criterion has been evaluated last */
+        private final HashGroupifyEntry[] entries;
+        /** The size of the class for which each criterion has been evaluated last */
+        private final int[]               counts;
+        /** The last result of each criterion */
+        private final boolean[]           results;
+
+        /**
+         * Creates a new instance
+         * @param size
+         */
+        private Memo(int size) {
+            this.entries = new HashGroupifyEntry[size];
+            this.counts = new int[size];
+            this.results = new boolean[size];
+        }
+    }
+
+    /** SVUID */
+    private static final long             serialVersionUID = -4969402158301045658L;
+
+    /** Every n-th evaluation of a criterion is timed */
+    private static final int              SAMPLING_RATE    = 64;
+
+    /** The criteria, in order of evaluation */
+    private final List<ProfiledCriterion> criteria         = new ArrayList<ProfiledCriterion>();
+    /** The names of the criteria, null if the chain has not been initialized */
+    private transient volatile String[]   names;
+    /** The memo of each thread */
+    private transient ThreadLocal<Memo>   memo;
+    /** The memos of all threads */
+    private transient List<Memo>          memos;
+    /** The number of evaluations of each criterion */
+    private transient AtomicLongArray     calls;
+    /** The number of rejections by each criterion */
+    private transient AtomicLongArray     rejections;
+    /** The number of timed evaluations of each criterion */
+    private transient AtomicLongArray     samples;
+    /** The time spent for timed evaluations of each criterion */
+    private transient AtomicLongArray     time;
+    /** The number of evaluations of each criterion skipped */
+    private transient AtomicLongArray     skips;
+
+    /**
+     * Creates a new chain, which registers itself with the shared profile
+     */
+    public CriterionChain() {
+        CriterionProfile.getInstance().register(this);
+    }
+
+    /**
+     * Returns whether the class fulfills the given criterion
+     * @param criterion
+     * @param entry
+     * @return
+     */
+    public boolean isAnonymous(ProfiledCriterion criterion, HashGroupifyEntry entry) {
+
+        String[] _names = names;
+        if (_names == null) {
+            _names = initialize();
+        }
+
+        Memo _memo = memo.get();
+        for (int i = 0; i < _names.length; i++) {
+            boolean result = evaluate(i, entry, _memo);
+            ProfiledCriterion current = criteria.get(i);
+            if (current == criterion) {
+                return result;
+            } else if (!result) {
+                skips.incrementAndGet(criteria.indexOf(criterion));
+                return false;
+            }
+        }
+        throw new RuntimeException("Criterion is not part of this chain");
+    }
+
+    /**
+     * Adds a criterion. Called by the constructors of profiled criteria.
+     * @param criterion
+     */
+    synchronized void add(ProfiledCriterion criterion) {
+        if (names != null) {
+            throw new RuntimeException("Chain has already been initialized");
+        }
+        criteria.add(criterion);
+    }
+
+    /**
+     * Transfers the statistics collected so far to the given profile, resets them and clears
+     * the memos of all threads
+     * @param profile
+     */
+    void flush(CriterionProfile profile) {
+        String[] _names = names;
+        if (_names == null) {
+            return;
+        }
+        for (int i = 0; i < _names.length; i++) {
+            profile.update(_names[i], calls.getAndSet(i, 0), rejections.getAndSet(i, 0),
+                           samples.getAndSet(i, 0), time.getAndSet(i, 0), skips.getAndSet(i, 0));
+        }
+        synchronized (memos) {
+            for (Memo _memo : memos) {
+                Arrays.fill(_memo.entries, null);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the criterion at the given position, if it has not yet been evaluated for the class
+     * @param index
+     * @param entry
+     * @param memo
+     * @return
+     */
+    private boolean evaluate(int index, HashGroupifyEntry entry, Memo memo) {
+
+        if (memo.entries[index] == entry && memo.counts[index] == entry.count) {
+            return memo.results[index];
+        }
+
+        boolean result;
+        if (calls.getAndIncrement(index) % SAMPLING_RATE == 0) {
+            long start = System.nanoTime();
+            result = criteria.get(index).isAnonymousUnprofiled(entry);
+            time.addAndGet(index, System.nanoTime() - start);
+            samples.incrementAndGet(index);
+        } else {
+            result = criteria.get(index).isAnonymousUnprofiled(entry);
+        }
+        if (!result) {
+            rejections.incrementAndGet(index);
+        }
+
+        memo.entries[index] = entry;
+        memo.counts[index] = entry.count;
+        memo.results[index] = result;
+        return result;
+    }
+
+    /**
+     * Orders the criteria according to the shared profile and initializes all buffers, once
+     * @return The names of the criteria
+     */
+    private synchronized String[] initialize() {
+
+        if (names != null) {
+            return names;
+        }
+
+        final CriterionProfile profile = CriterionProfile.getInstance();
+        Collections.sort(criteria, new Comparator<ProfiledCriterion>() {
+            @Override
+            public int compare(ProfiledCriterion o1, ProfiledCriterion o2) {
+                return Double.compare(profile.getScore(o1.toString()), profile.getScore(o2.toString()));
+            }
+        });
+
+        final int size = criteria.size();
+        String[] _names = new String[size];
+        for (int i = 0; i < size; i++) {
+            _names[i] = criteria.get(i).toString();
+        }
+        memos = new ArrayList<Memo>();
+        memo = new ThreadLocal<Memo>() {
+            @Override
+            protected Memo initialValue() {
+                Memo _memo = new Memo(size);
+                synchronized (memos) {
+                    memos.add(_memo);
+                }
+                return _memo;
+            }
+        };
+        calls = new AtomicLongArray(size);
+        rejections = new AtomicLongArray(size);
+        samples = new AtomicLongArray(size);
+        time = new AtomicLongArray(size);
+        skips = new AtomicLongArray(size);
+
+        // Publish
+        names = _names;
+        return _names;
+    }
+}
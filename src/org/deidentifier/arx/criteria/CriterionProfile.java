@@ -0,0 +1,155 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.criteria;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the evaluation cost and the rejection rate of class-based criteria across all
+ * runs within the JVM. Criteria are ranked by their expected cost per rejection, such that
+ * cheap and selective criteria are evaluated first. Criteria which have not been profiled
+ * yet are ranked first, in order to collect statistics about them. The profile should be
+ * reset and warmed up for each configuration, such that the order of evaluation does not
+ * depend on previous runs.
+ *
+ * @author Fabian Prasser
+ */
+public class CriterionProfile {
+
+    /**
+     * Statistics about a criterion
+     */
+    private static final class Statistics {
+
+        /** The number of evaluations */
+        private long calls;
+        /** The number of rejections */
+        private long rejections;
+        /** The number of timed evaluations */
+        private long samples;
+        /** The time spent for timed evaluations */
+        private long time;
+    }
+
+    /** The shared instance */
+    private static final CriterionProfile INSTANCE = new CriterionProfile();
+
+    /**
+     * Returns the instance shared within the JVM
+     * @return
+     */
+    public static CriterionProfile getInstance() {
+        return INSTANCE;
+    }
+
+    /** The statistics, indexed by the name of the criterion */
+    private final Map<String, Statistics> statistics = new HashMap<String, Statistics>();
+    /** The chains which have not yet been flushed */
+    private final List<CriterionChain>    chains     = new ArrayList<CriterionChain>();
+    /** The number of evaluations skipped */
+    private long                          skips;
+
+    /**
+     * Creates a new instance
+     */
+    private CriterionProfile() {
+        // Empty by design
+    }
+
+    /**
+     * Transfers the statistics of all chains created since the last call to this profile.
+     * Must be called after each run, while no chain is being evaluated.
+     */
+    public synchronized void flush() {
+        for (CriterionChain chain : chains) {
+            chain.flush(this);
+        }
+        chains.clear();
+    }
+
+    /**
+     * Discards the statistics of all criteria, including those of chains which have not yet
+     * been flushed. The number of skipped evaluations is retained. Must be called while no
+     * chain is being evaluated.
+     */
+    public synchronized void reset() {
+        flush();
+        statistics.clear();
+    }
+
+    /**
+     * Returns the number of evaluations which have been skipped by all chains flushed so far
+     * @return
+     */
+    public synchronized long getNumSkipped() {
+        return skips;
+    }
+
+    /**
+     * Returns the expected cost per rejection of the given criterion in nanoseconds,
+     * 0 if the criterion has not been profiled yet
+     * @param name
+     * @return
+     */
+    public synchronized double getScore(String name) {
+        Statistics _statistics = statistics.get(name);
+        if (_statistics == null || _statistics.samples == 0) {
+            return 0d;
+        }
+        double cost = (double) _statistics.time / (double) _statistics.samples;
+        double selectivity = (double) (_statistics.rejections + 1) / (double) (_statistics.calls + 1);
+        return cost / selectivity;
+    }
+
+    /**
+     * Registers a new chain
+     * @param chain
+     */
+    synchronized void register(CriterionChain chain) {
+        chains.add(chain);
+    }
+
+    /**
+     * Updates the statistics of a criterion
+     * @param name
+     * @param calls
+     * @param rejections
+     * @param samples
+     * @param time
+     * @param skips
+     */
+    synchronized void update(String name, long calls, long rejections, long samples, long time, long skips) {
+        Statistics _statistics = statistics.get(name);
+        if (_statistics == null) {
+            _statistics = new Statistics();
+            statistics.put(name, _statistics);
+        }
+        _statistics.calls += calls;
+        _statistics.rejections += rejections;
+        _statistics.samples += samples;
+        _statistics.time += time;
+        this.skips += skips;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.criteria;
+
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+
+/**
+ * A privacy criterion which is evaluated as part of a <code>CriterionChain</code>
+ *
+ * @author Fabian Prasser
+ */
+public interface ProfiledCriterion {
+
+    /**
+     * Returns the chain of this criterion
+     * @return
+     */
+    public CriterionChain getChain();
+
+    /**
+     * Evaluates the criterion without consulting the chain
+     * @param entry
+     * @return
+     */
+    public boolean isAnonymousUnprofiled(HashGroupifyEntry entry);
+}
@@ -0,0 +1,88 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.criteria;
+
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+
+/**
+ * t-closeness with hierarchical ground distance as part of a <code>CriterionChain</code>. Verdicts
+ * are cached per distribution of sensitive values, such that earth mover's distances are only
+ * computed for classes which have changed during a roll-up.
+ *
+ * @author Fabian Prasser
+ */
+public class ProfiledHierarchicalDistanceTCloseness extends HierarchicalDistanceTCloseness implements ProfiledCriterion {
+
+    /** SVUID */
+    private static final long       serialVersionUID = -7412245312385402061L;
+
+    /** The chain */
+    private final CriterionChain    chain;
+    /** The verdicts cached per distribution of sensitive values, null if disabled */
+    private final ClassVerdictCache verdicts;
+
+    /**
+     * Creates a new instance
+     * @param chain
+     * @param attribute
+     * @param t
+     * @param hierarchy
+     * @param cacheSize The number of verdicts cached, 0 disables the cache
+     */
+    public ProfiledHierarchicalDistanceTCloseness(CriterionChain chain, String attribute, double t, Hierarchy hierarchy, int cacheSize) {
+        super(attribute, t, hierarchy);
+        this.chain = chain;
+        this.verdicts = cacheSize == 0 ? null : new ClassVerdictCache(cacheSize);
+        chain.add(this);
+    }
+
+    @Override
+    public CriterionChain getChain() {
+        return chain;
+    }
+
+    @Override
+    public boolean isAnonymous(HashGroupifyEntry entry) {
+        return chain.isAnonymous(this, entry);
+    }
+
+    @Override
+    public boolean isAnonymousUnprofiled(HashGroupifyEntry entry) {
+
+        if (verdicts == null) {
+            return super.isAnonymous(entry);
+        }
+
+        // Hit
+        int[] key = verdicts.getKey(entry);
+        Boolean result = verdicts.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        // Miss
+        boolean anonymous = super.isAnonymous(entry);
+        verdicts.put(key, anonymous);
+        return anonymous;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.criteria;
+
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+
+/**
+ * k-anonymity as part of a <code>CriterionChain</code>. The criterion is decided by the
+ * size of a class, which makes it the cheapest criterion of every chain.
+ *
+ * @author Fabian Prasser
+ */
+public class ProfiledKAnonymity extends KAnonymity implements ProfiledCriterion {
+
+    /** SVUID */
+    private static final long    serialVersionUID = -2166386473391532563L;
+
+    /** The chain */
+    private final CriterionChain chain;
+
+    /**
+     * Creates a new instance
+     * @param chain
+     * @param k
+     */
+    public ProfiledKAnonymity(CriterionChain chain, int k) {
+        super(k);
+        this.chain = chain;
+        chain.add(this);
+    }
+
+    @Override
+    public CriterionChain getChain() {
+        return chain;
+    }
+
+    @Override
+    public boolean isAnonymous(HashGroupifyEntry entry) {
+        return chain.isAnonymous(this, entry);
+    }
+
+    @Override
+    public boolean isAnonymousUnprofiled(HashGroupifyEntry entry) {
+        return entry.count >= getK();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.criteria;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache for the results of risk estimates, which only depend on the
+ * distribution of class sizes. The cache is shared by all criteria within the JVM and
+ * keeps track of its hit rate and of the time saved.
+ *
+ * @author Fabian Prasser
+ */
+public class RiskEstimateCache {
+
+    /**
+     * Key of an entry: a class size histogram and the parameters of the estimate
+     */
+    private static final class Key {
+
+        /** The histogram */
+        private final int[]  histogram;
+        /** The parameters */
+        private final String parameters;
+        /** The hash code */
+        private final int    hash;
+
+        /**
+         * Creates a new instance
+         * @param histogram
+         * @param parameters
+         */
+        private Key(int[] histogram, String parameters) {
+            this.histogram = histogram;
+            this.parameters = parameters;
+            this.hash = 31 * Arrays.hashCode(histogram) + parameters.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            Key other = (Key) obj;
+            return parameters.equals(other.parameters) && Arrays.equals(histogram, other.histogram);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** The maximal number of entries */
+    private static final int               CAPACITY = 100000;
+
+    /** The shared instance */
+    private static final RiskEstimateCache INSTANCE = new RiskEstimateCache(CAPACITY);
+
+    /**
+     * Returns the instance shared within the JVM
+     * @return
+     */
+    public static RiskEstimateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** The cached results */
+    private final Map<Key, Boolean> cache;
+    /** The number of cache hits */
+    private long                    hits;
+    /** The number of cache misses */
+    private long                    misses;
+    /** The time spent for computing estimates on cache misses */
+    private long                    missTime;
+    /** The estimated time saved by cache hits */
+    private long                    savedTime;
+
+    /**
+     * Creates a new instance
+     * @param capacity
+     */
+    private RiskEstimateCache(final int capacity) {
+        this.cache = new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2593453318233717387L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Removes all cached results. The statistics are kept.
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the cached result for the given histogram and parameters, null if there is none
+     * @param histogram
+     * @param parameters
+     * @return
+     */
+    public synchronized Boolean get(int[] histogram, String parameters) {
+        Boolean result = cache.get(new Key(histogram, parameters));
+        if (result != null) {
+            hits++;
+            savedTime += missTime / misses;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of cache hits
+     * @return
+     */
+    public synchronized long getNumHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of cache misses
+     * @return
+     */
+    public synchronized long getNumMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the time saved by cache hits in nanoseconds. For each hit, the average time
+     * required for computing an estimate on a cache miss so far is accounted for.
+     * @return
+     */
+    public synchronized long getTimeSaved() {
+        return savedTime;
+    }
+
+    /**
+     * Stores a result computed on a cache miss
+     * @param histogram
+     * @param parameters
+     * @param result
+     * @param time Time required for computing the result in nanoseconds
+     */
+    public synchronized void put(int[] histogram, String parameters, boolean result, long time) {
+        cache.put(new Key(histogram.clone(), parameters), result);
+        misses++;
+        missTime += time;
+    }
+}
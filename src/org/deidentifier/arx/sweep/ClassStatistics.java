@@ -0,0 +1,361 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.sweep;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics about the equivalence classes induced by a transformation: the size of each
+ * class and, optionally, a sparse histogram of the sensitive values contained in each class.
+ * Statistics can either be computed by scanning the dataset or by rolling up the statistics
+ * of a predecessor. In the latter case, classes which have not been merged with other classes
+ * keep their histograms and cached distances.
+ *
+ * @author Fabian Prasser
+ */
+public class ClassStatistics {
+
+    /**
+     * Key of an equivalence class
+     */
+    private static final class Key {
+
+        /** The generalized values */
+        private final int[] values;
+        /** The hash code */
+        private final int   hash;
+
+        /**
+         * Creates a new instance
+         * @param values
+         */
+        private Key(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return Arrays.equals(values, ((Key) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Computes the statistics for the given transformation by scanning the dataset
+     * @param data
+     * @param transformation
+     * @param histograms Whether histograms of sensitive values should be collected
+     * @return
+     */
+    public static ClassStatistics create(EncodedData data, int[] transformation, boolean histograms) {
+
+        int[][] input = data.getData();
+        int[][][] generalization = data.getGeneralization();
+        int[] sensitive = histograms ? data.getSensitive() : null;
+
+        Map<Key, Integer> classes = new HashMap<Key, Integer>();
+        ClassStatistics result = new ClassStatistics(transformation, 16, sensitive != null);
+
+        for (int row = 0; row < data.getNumRows(); row++) {
+
+            // Generalize
+            int[] key = new int[input.length];
+            for (int qi = 0; qi < input.length; qi++) {
+                key[qi] = generalization[qi][transformation[qi]][input[qi][row]];
+            }
+
+            // Group
+            Key _key = new Key(key);
+            Integer index = classes.get(_key);
+            if (index == null) {
+                index = result.add(key);
+                classes.put(_key, index);
+            }
+            result.sizes[index]++;
+            if (sensitive != null) {
+                result.increment(index, sensitive[row], 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the statistics for the given transformation by merging the classes of the
+     * given statistics, which must have been computed for a predecessor of the transformation
+     * @param data
+     * @param predecessor
+     * @param transformation
+     * @return
+     */
+    public static ClassStatistics create(EncodedData data, ClassStatistics predecessor, int[] transformation) {
+
+        int[][][] parents = data.getParents();
+        int[] source = predecessor.transformation;
+
+        Map<Key, Integer> classes = new HashMap<Key, Integer>();
+        ClassStatistics result = new ClassStatistics(transformation, Math.max(16, predecessor.numClasses), predecessor.hasHistograms());
+
+        for (int index = 0; index < predecessor.numClasses; index++) {
+
+            // Generalize
+            int[] key = predecessor.keys[index].clone();
+            for (int qi = 0; qi < key.length; qi++) {
+                for (int level = source[qi]; level < transformation[qi]; level++) {
+                    key[qi] = parents[qi][level][key[qi]];
+                }
+            }
+
+            // Group
+            Key _key = new Key(key);
+            Integer target = classes.get(_key);
+            if (target == null) {
+                target = result.add(key);
+                classes.put(_key, target);
+                result.sizes[target] = predecessor.sizes[index];
+                result.distances[target] = predecessor.distances[index];
+                if (result.values != null) {
+                    result.values[target] = predecessor.values[index];
+                    result.counts[target] = predecessor.counts[index];
+                }
+            } else {
+                result.merged++;
+                result.sizes[target] += predecessor.sizes[index];
+                result.distances[target] = Double.NaN;
+                if (result.values != null) {
+                    result.merge(target, predecessor.values[index], predecessor.counts[index]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** The transformation */
+    private final int[] transformation;
+    /** The number of classes */
+    private int         numClasses;
+    /** The key of each class */
+    private int[][]     keys;
+    /** The size of each class */
+    private int[]       sizes;
+    /** The sensitive values in each class, sorted, null if not collected */
+    private int[][]     values;
+    /** The frequencies of the sensitive values in each class, null if not collected */
+    private int[][]     counts;
+    /** The cached distance of each class, NaN if not known */
+    private double[]    distances;
+    /** The number of classes merged during a roll-up */
+    private int         merged;
+
+    /**
+     * Creates a new instance
+     * @param transformation
+     * @param capacity
+     * @param histograms
+     */
+    private ClassStatistics(int[] transformation, int capacity, boolean histograms) {
+        this.transformation = transformation.clone();
+        this.keys = new int[capacity][];
+        this.sizes = new int[capacity];
+        this.distances = new double[capacity];
+        if (histograms) {
+            this.values = new int[capacity][];
+            this.counts = new int[capacity][];
+        }
+    }
+
+    /**
+     * Returns the cached distance of the given class, NaN if not known
+     * @param index
+     * @return
+     */
+    public double getDistance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Returns the sensitive values contained in the given class, sorted
+     * @param index
+     * @return
+     */
+    public int[] getHistogramValues(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the frequencies of the sensitive values contained in the given class
+     * @param index
+     * @return
+     */
+    public int[] getHistogramCounts(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Returns the key of the given class
+     * @param index
+     * @return
+     */
+    public int[] getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the number of classes of the predecessor that have been merged into other
+     * classes, 0 if the statistics have been computed by scanning the dataset
+     * @return
+     */
+    public int getNumMergedClasses() {
+        return merged;
+    }
+
+    /**
+     * Returns the number of classes
+     * @return
+     */
+    public int getNumClasses() {
+        return numClasses;
+    }
+
+    /**
+     * Returns the size of the given class
+     * @param index
+     * @return
+     */
+    public int getSize(int index) {
+        return sizes[index];
+    }
+
+    /**
+     * Returns the transformation
+     * @return
+     */
+    public int[] getTransformation() {
+        return transformation;
+    }
+
+    /**
+     * Returns whether histograms of sensitive values are available
+     * @return
+     */
+    public boolean hasHistograms() {
+        return values != null;
+    }
+
+    /**
+     * Caches the distance of the given class
+     * @param index
+     * @param distance
+     */
+    public void setDistance(int index, double distance) {
+        distances[index] = distance;
+    }
+
+    /**
+     * Adds a new, empty class
+     * @param key
+     * @return
+     */
+    private int add(int[] key) {
+        if (numClasses == keys.length) {
+            int capacity = keys.length << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            if (values != null) {
+                values = Arrays.copyOf(values, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+        keys[numClasses] = key;
+        distances[numClasses] = Double.NaN;
+        if (values != null) {
+            values[numClasses] = new int[0];
+            counts[numClasses] = new int[0];
+        }
+        return numClasses++;
+    }
+
+    /**
+     * Merges the given histogram into the histogram of the given class. Creates new arrays,
+     * because the existing arrays may be shared with the statistics of a predecessor.
+     * @param index
+     * @param _values
+     * @param _counts
+     */
+    private void merge(int index, int[] _values, int[] _counts) {
+
+        int[] values1 = values[index];
+        int[] counts1 = counts[index];
+        int[] newValues = new int[values1.length + _values.length];
+        int[] newCounts = new int[values1.length + _values.length];
+
+        int i = 0, j = 0, size = 0;
+        while (i < values1.length || j < _values.length) {
+            if (j == _values.length || (i < values1.length && values1[i] < _values[j])) {
+                newValues[size] = values1[i];
+                newCounts[size++] = counts1[i++];
+            } else if (i == values1.length || _values[j] < values1[i]) {
+                newValues[size] = _values[j];
+                newCounts[size++] = _counts[j++];
+            } else {
+                newValues[size] = values1[i];
+                newCounts[size++] = counts1[i++] + _counts[j++];
+            }
+        }
+
+        values[index] = Arrays.copyOf(newValues, size);
+        counts[index] = Arrays.copyOf(newCounts, size);
+    }
+
+    /**
+     * Increments the frequency of the given sensitive value in the given class
+     * @param index
+     * @param value
+     * @param count
+     */
+    private void increment(int index, int value, int count) {
+        int[] _values = values[index];
+        int position = Arrays.binarySearch(_values, value);
+        if (position >= 0) {
+            counts[index][position] += count;
+        } else {
+            position = -position - 1;
+            int[] _counts = counts[index];
+            int[] newValues = new int[_values.length + 1];
+            int[] newCounts = new int[_values.length + 1];
+            System.arraycopy(_values, 0, newValues, 0, position);
+            System.arraycopy(_counts, 0, newCounts, 0, position);
+            newValues[position] = value;
+            newCounts[position] = count;
+            System.arraycopy(_values, position, newValues, position + 1, _values.length - position);
+            System.arraycopy(_counts, position, newCounts, position + 1, _values.length - position);
+            values[index] = newValues;
+            counts[index] = newCounts;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.sweep;
+
+import java.util.Arrays;
+
+/**
+ * Computes the earth mover's distance with hierarchical ground distance between the
+ * distribution of sensitive values in a class and the overall distribution, as defined by
+ * Li et al. This class is not thread-safe, as it reuses internal buffers.
+ *
+ * @author Fabian Prasser
+ */
+public class EarthMoversDistance {
+
+    /** The overall distribution */
+    private final double[]   distribution;
+    /** The parent of each node [level][node] */
+    private final int[][]    parents;
+    /** The extra mass of each node [level][node] */
+    private final double[][] extra;
+    /** Buffer for positive extra mass */
+    private final double[][] positive;
+    /** Buffer for negative extra mass */
+    private final double[][] negative;
+    /** The height of the hierarchy */
+    private final int        height;
+
+    /**
+     * Creates a new instance
+     * @param data
+     */
+    public EarthMoversDistance(EncodedData data) {
+        this.distribution = data.getSensitiveDistribution();
+        this.parents = data.getSensitiveParents();
+        this.height = parents.length - 1;
+        int[] domains = data.getSensitiveDomains();
+        this.extra = new double[domains.length][];
+        this.positive = new double[domains.length][];
+        this.negative = new double[domains.length][];
+        for (int level = 0; level < domains.length; level++) {
+            this.extra[level] = new double[domains[level]];
+            this.positive[level] = new double[domains[level]];
+            this.negative[level] = new double[domains[level]];
+        }
+    }
+
+    /**
+     * Returns the distance for a class with the given histogram
+     * @param values
+     * @param counts
+     * @param size
+     * @return
+     */
+    public double getDistance(int[] values, int[] counts, int size) {
+
+        if (height == 0) {
+            return 0d;
+        }
+
+        // Leaves
+        double[] leaves = extra[0];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = -distribution[i];
+        }
+        for (int i = 0; i < values.length; i++) {
+            leaves[values[i]] += (double) counts[i] / (double) size;
+        }
+
+        // Inner nodes
+        double result = 0d;
+        for (int level = 1; level <= height; level++) {
+
+            double[] _extra = extra[level];
+            double[] _positive = positive[level];
+            double[] _negative = negative[level];
+            Arrays.fill(_extra, 0d);
+            Arrays.fill(_positive, 0d);
+            Arrays.fill(_negative, 0d);
+
+            double[] children = extra[level - 1];
+            int[] _parents = parents[level - 1];
+            for (int child = 0; child < children.length; child++) {
+                double value = children[child];
+                int parent = _parents[child];
+                _extra[parent] += value;
+                if (value > 0d) {
+                    _positive[parent] += value;
+                } else {
+                    _negative[parent] -= value;
+                }
+            }
+
+            double cost = 0d;
+            for (int node = 0; node < _extra.length; node++) {
+                cost += Math.min(_positive[node], _negative[node]);
+            }
+            result += (double) level / (double) height * cost;
+        }
+        return result;
+    }
+}
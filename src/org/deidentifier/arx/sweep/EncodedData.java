@@ -0,0 +1,304 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.sweep;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.deidentifier.arx.DataHandle;
+
+/**
+ * Dictionary-encoded representation of a dataset, its quasi-identifiers and its sensitive
+ * attribute, as required for computing equivalence class statistics independently of ARX.
+ *
+ * @author Fabian Prasser
+ */
+public class EncodedData {
+
+    /** The number of rows */
+    private final int       rows;
+    /** The encoded quasi-identifiers [qi][row], values are row indices into the hierarchy */
+    private final int[][]   data;
+    /** The generalization functions [qi][level][value] */
+    private final int[][][] generalization;
+    /** The number of distinct values per level [qi][level] */
+    private final int[][]   domains;
+    /** The parent of each generalized value [qi][level][value] */
+    private final int[][][] parents;
+    /** The encoded sensitive attribute [row], null if not available */
+    private final int[]     sensitive;
+    /** The generalization hierarchy of the sensitive attribute [level][value], null if not available */
+    private final int[][]   sensitiveTree;
+    /** The parent of each node of the sensitive hierarchy [level][node] */
+    private final int[][]   sensitiveParents;
+    /** The number of distinct values of the sensitive attribute per level */
+    private final int[]     sensitiveDomains;
+    /** The overall distribution of sensitive values */
+    private final double[]  sensitiveDistribution;
+
+    /**
+     * Creates a new instance
+     * @param handle
+     * @param quasiIdentifiers
+     * @param hierarchies
+     * @param sensitiveAttribute May be null
+     * @param sensitiveHierarchy May be null
+     */
+    public EncodedData(DataHandle handle,
+                       String[] quasiIdentifiers,
+                       String[][][] hierarchies,
+                       String sensitiveAttribute,
+                       String[][] sensitiveHierarchy) {
+
+        this.rows = handle.getNumRows();
+        this.data = new int[quasiIdentifiers.length][];
+        this.generalization = new int[quasiIdentifiers.length][][];
+        this.domains = new int[quasiIdentifiers.length][];
+        this.parents = new int[quasiIdentifiers.length][][];
+
+        // Encode quasi-identifiers
+        for (int i = 0; i < quasiIdentifiers.length; i++) {
+            this.generalization[i] = getGeneralization(hierarchies[i]);
+            this.domains[i] = getDomains(this.generalization[i]);
+            this.parents[i] = getParents(this.generalization[i], this.domains[i]);
+            this.data[i] = encode(handle, quasiIdentifiers[i], hierarchies[i]);
+        }
+
+        // Encode sensitive attribute
+        if (sensitiveAttribute != null && sensitiveHierarchy != null) {
+            this.sensitiveTree = getGeneralization(sensitiveHierarchy);
+            this.sensitiveDomains = getDomains(this.sensitiveTree);
+            this.sensitiveParents = getParents(this.sensitiveTree, this.sensitiveDomains);
+            this.sensitive = encode(handle, sensitiveAttribute, sensitiveHierarchy);
+            this.sensitiveDistribution = new double[sensitiveHierarchy.length];
+            for (int value : sensitive) {
+                this.sensitiveDistribution[value]++;
+            }
+            for (int i = 0; i < sensitiveDistribution.length; i++) {
+                this.sensitiveDistribution[i] /= (double) rows;
+            }
+        } else {
+            this.sensitive = null;
+            this.sensitiveTree = null;
+            this.sensitiveParents = null;
+            this.sensitiveDomains = null;
+            this.sensitiveDistribution = null;
+        }
+    }
+
+    /**
+     * Returns the encoded quasi-identifiers [qi][row]
+     * @return
+     */
+    public int[][] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the number of distinct values of the given quasi-identifier on the given level
+     * @param qi
+     * @param level
+     * @return
+     */
+    public int getDomainSize(int qi, int level) {
+        return domains[qi][level];
+    }
+
+    /**
+     * Returns the generalization functions [qi][level][value]
+     * @return
+     */
+    public int[][][] getGeneralization() {
+        return generalization;
+    }
+
+    /**
+     * Returns the height of the hierarchy of each quasi-identifier
+     * @return
+     */
+    public int[] getHeights() {
+        int[] heights = new int[generalization.length];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = generalization[i].length;
+        }
+        return heights;
+    }
+
+    /**
+     * Returns the number of quasi-identifiers
+     * @return
+     */
+    public int getNumQuasiIdentifiers() {
+        return data.length;
+    }
+
+    /**
+     * Returns the parent of each generalized value [qi][level][value]. The array for the
+     * top-most level of each hierarchy is empty.
+     * @return
+     */
+    public int[][][] getParents() {
+        return parents;
+    }
+
+    /**
+     * Returns the number of rows
+     * @return
+     */
+    public int getNumRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the encoded sensitive attribute [row]
+     * @return
+     */
+    public int[] getSensitive() {
+        return sensitive;
+    }
+
+    /**
+     * Returns the number of distinct values of the sensitive attribute per level
+     * @return
+     */
+    public int[] getSensitiveDomains() {
+        return sensitiveDomains;
+    }
+
+    /**
+     * Returns the parent of each node of the sensitive hierarchy [level][node]. The array
+     * for the top-most level is empty.
+     * @return
+     */
+    public int[][] getSensitiveParents() {
+        return sensitiveParents;
+    }
+
+    /**
+     * Returns the overall distribution of sensitive values
+     * @return
+     */
+    public double[] getSensitiveDistribution() {
+        return sensitiveDistribution;
+    }
+
+    /**
+     * Returns the hierarchy of the sensitive attribute [level][value]
+     * @return
+     */
+    public int[][] getSensitiveTree() {
+        return sensitiveTree;
+    }
+
+    /**
+     * Returns whether a sensitive attribute has been encoded
+     * @return
+     */
+    public boolean hasSensitiveAttribute() {
+        return sensitive != null;
+    }
+
+    /**
+     * Encodes the given attribute with the row indices of its values in the hierarchy
+     * @param handle
+     * @param attribute
+     * @param hierarchy
+     * @return
+     */
+    private int[] encode(DataHandle handle, String attribute, String[][] hierarchy) {
+
+        Map<String, Integer> dictionary = new HashMap<String, Integer>();
+        for (int i = 0; i < hierarchy.length; i++) {
+            dictionary.put(hierarchy[i][0], i);
+        }
+
+        int column = handle.getColumnIndexOf(attribute);
+        int[] result = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            Integer value = dictionary.get(handle.getValue(row, column));
+            if (value == null) {
+                throw new RuntimeException("Value '" + handle.getValue(row, column) + "' of attribute '" + attribute + "' not found in hierarchy");
+            }
+            result[row] = value;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct values per level
+     * @param generalization
+     * @return
+     */
+    private int[] getDomains(int[][] generalization) {
+        int[] result = new int[generalization.length];
+        for (int level = 0; level < generalization.length; level++) {
+            int max = 0;
+            for (int value : generalization[level]) {
+                max = Math.max(max, value);
+            }
+            result[level] = max + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the parent of each node in the given encoded hierarchy
+     * @param tree
+     * @param domains
+     * @return
+     */
+    private int[][] getParents(int[][] tree, int[] domains) {
+        int[][] result = new int[tree.length][];
+        for (int level = 0; level < tree.length; level++) {
+            result[level] = new int[level == tree.length - 1 ? 0 : domains[level]];
+        }
+        for (int level = 0; level < tree.length - 1; level++) {
+            for (int i = 0; i < tree[level].length; i++) {
+                result[level][tree[level][i]] = tree[level + 1][i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Encodes the generalization hierarchy. Maps each leaf to an identifier per level.
+     * @param hierarchy
+     * @return
+     */
+    private int[][] getGeneralization(String[][] hierarchy) {
+
+        int height = hierarchy[0].length;
+        int[][] result = new int[height][hierarchy.length];
+        for (int level = 0; level < height; level++) {
+            Map<String, Integer> dictionary = new HashMap<String, Integer>();
+            for (int i = 0; i < hierarchy.length; i++) {
+                String value = hierarchy[i][level];
+                Integer code = dictionary.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.put(value, code);
+                }
+                result[level][i] = code;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.sweep;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates a vector of privacy parameters in a single pass over the complete solution space.
+ * The statistics of the equivalence classes induced by a transformation are computed once
+ * and then used to decide anonymity and to compute the cost for each parameter. The cost of
+ * a transformation is its average equivalence class size (AECS), where suppressed records
+ * form one additional class.<br>
+ * <br>
+ * When roll-ups are enabled, the statistics of each transformation except the bottom node
+ * are derived by merging the classes of its direct predecessor in the enumeration order.
+ * Distances for t-closeness are then only recomputed for classes which have been merged.
+ *
+ * @author Fabian Prasser
+ */
+public class ParameterSweep {
+
+    /** The data */
+    private final EncodedData         data;
+    /** The parameters */
+    private final SweepParameter[]    parameters;
+    /** The results */
+    private final SweepResult[]       results;
+    /** The height of each hierarchy */
+    private final int[]               heights;
+    /** Whether histograms of sensitive values are required */
+    private final boolean             histograms;
+    /** Computes distances for t-closeness, null if not required */
+    private final EarthMoversDistance distance;
+    /** Whether statistics are derived by rolling up the statistics of predecessors */
+    private final boolean             rollup;
+    /** The number of transformations evaluated */
+    private int                       checks;
+    /** The number of distances computed */
+    private long                      distancesComputed;
+    /** The number of distances reused from a predecessor */
+    private long                      distancesReused;
+
+    /**
+     * Creates a new instance
+     * @param data
+     * @param parameters
+     * @param rollup
+     */
+    public ParameterSweep(EncodedData data, SweepParameter[] parameters, boolean rollup) {
+
+        this.data = data;
+        this.rollup = rollup;
+        this.parameters = parameters;
+        this.heights = data.getHeights();
+        this.results = new SweepResult[parameters.length];
+
+        boolean histograms = false;
+        boolean distances = false;
+        for (int i = 0; i < parameters.length; i++) {
+            this.results[i] = new SweepResult(parameters[i]);
+            histograms |= parameters[i].isLDiversity() || parameters[i].isTCloseness();
+            distances |= parameters[i].isTCloseness();
+        }
+        if (histograms && !data.hasSensitiveAttribute()) {
+            throw new IllegalArgumentException("Parameters require a sensitive attribute");
+        }
+        this.histograms = histograms;
+        this.distance = distances ? new EarthMoversDistance(data) : null;
+    }
+
+    /**
+     * Returns the number of transformations evaluated
+     * @return
+     */
+    public int getNumChecks() {
+        return checks;
+    }
+
+    /**
+     * Returns the number of distances which have been computed
+     * @return
+     */
+    public long getNumDistancesComputed() {
+        return distancesComputed;
+    }
+
+    /**
+     * Returns the number of distances which have been reused from a predecessor
+     * @return
+     */
+    public long getNumDistancesReused() {
+        return distancesReused;
+    }
+
+    /**
+     * Performs the sweep and returns one result per parameter
+     * @return
+     */
+    public SweepResult[] run() {
+        traverse(new int[heights.length], 0, null);
+        return results;
+    }
+
+    /**
+     * Evaluates all parameters for the given class statistics
+     * @param statistics
+     */
+    private void evaluate(ClassStatistics statistics) {
+
+        int[] suppressed = new int[parameters.length];
+        int[] retained = new int[parameters.length];
+
+        for (int index = 0; index < statistics.getNumClasses(); index++) {
+
+            int size = statistics.getSize(index);
+
+            // Compute class properties required by any of the parameters
+            int[] frequencies = null;
+            double emd = 0d;
+            if (histograms) {
+                frequencies = statistics.getHistogramCounts(index).clone();
+                Arrays.sort(frequencies);
+                if (distance != null) {
+                    emd = statistics.getDistance(index);
+                    if (Double.isNaN(emd)) {
+                        emd = distance.getDistance(statistics.getHistogramValues(index),
+                                                   statistics.getHistogramCounts(index),
+                                                   size);
+                        statistics.setDistance(index, emd);
+                        distancesComputed++;
+                    } else {
+                        distancesReused++;
+                    }
+                }
+            }
+
+            // Evaluate each parameter
+            for (int i = 0; i < parameters.length; i++) {
+                if (isFulfilled(parameters[i], size, frequencies, emd)) {
+                    retained[i]++;
+                } else {
+                    suppressed[i] += size;
+                }
+            }
+        }
+
+        // Track optima
+        int rows = data.getNumRows();
+        for (int i = 0; i < parameters.length; i++) {
+            if (suppressed[i] <= (int) Math.floor(parameters[i].getSuppression() * rows)) {
+                int classes = retained[i] + (suppressed[i] > 0 ? 1 : 0);
+                results[i].track(statistics.getTransformation(), (double) rows / (double) classes, suppressed[i]);
+            }
+        }
+        checks++;
+    }
+
+    /**
+     * Returns whether a class fulfills the given parameter
+     * @param parameter
+     * @param size
+     * @param frequencies Sorted ascending
+     * @param emd
+     * @return
+     */
+    private boolean isFulfilled(SweepParameter parameter, int size, int[] frequencies, double emd) {
+
+        // k-anonymity
+        if (size < parameter.getK()) {
+            return false;
+        }
+
+        // Recursive-(c,l)-diversity
+        if (parameter.isLDiversity()) {
+            int l = parameter.getL();
+            int distinct = frequencies.length;
+            if (distinct < l) {
+                return false;
+            }
+            int threshold = 0;
+            for (int i = 0; i <= distinct - l; i++) {
+                threshold += frequencies[i];
+            }
+            if (frequencies[distinct - 1] >= parameter.getC() * threshold) {
+                return false;
+            }
+        }
+
+        // t-closeness
+        if (parameter.isTCloseness() && emd > parameter.getT()) {
+            return false;
+        }
+
+        // Fulfilled
+        return true;
+    }
+
+    /**
+     * Enumerates all transformations in depth-first order, such that each transformation
+     * is visited exactly once. Transformations are extended by generalizing attributes
+     * with an index greater or equal to the given index only. As a consequence, each
+     * transformation is visited directly after one of its direct predecessors or one of
+     * the predecessor's other successors.
+     * @param transformation
+     * @param index
+     * @param predecessor Statistics of the direct predecessor, null for the bottom node
+     */
+    private void traverse(int[] transformation, int index, ClassStatistics predecessor) {
+
+        ClassStatistics statistics;
+        if (rollup && predecessor != null) {
+            statistics = ClassStatistics.create(data, predecessor, transformation);
+        } else {
+            statistics = ClassStatistics.create(data, transformation, histograms);
+        }
+        evaluate(statistics);
+
+        for (int i = index; i < transformation.length; i++) {
+            if (transformation[i] < heights[i] - 1) {
+                transformation[i]++;
+                traverse(transformation, i, statistics);
+                transformation[i]--;
+            }
+        }
+    }
+}
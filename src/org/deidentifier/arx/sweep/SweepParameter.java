@@ -0,0 +1,162 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.sweep;
+
+/**
+ * A single point in the parameter space of a sweep: parameters of k-anonymity,
+ * recursive-(c,l)-diversity and t-closeness (with hierarchical distance) together with
+ * a suppression limit. Criteria which are not part of the point are disabled.
+ *
+ * @author Fabian Prasser
+ */
+public class SweepParameter {
+
+    /**
+     * Creates a parameter for k-anonymity
+     * @param k
+     * @param suppression
+     * @return
+     */
+    public static SweepParameter createKAnonymity(int k, double suppression) {
+        return new SweepParameter(k, 0d, 0, Double.NaN, suppression);
+    }
+
+    /**
+     * Creates a parameter for recursive-(c,l)-diversity
+     * @param c
+     * @param l
+     * @param suppression
+     * @return
+     */
+    public static SweepParameter createLDiversity(double c, int l, double suppression) {
+        return new SweepParameter(1, c, l, Double.NaN, suppression);
+    }
+
+    /**
+     * Creates a parameter for t-closeness
+     * @param t
+     * @param suppression
+     * @return
+     */
+    public static SweepParameter createTCloseness(double t, double suppression) {
+        return new SweepParameter(1, 0d, 0, t, suppression);
+    }
+
+    /** Parameter k */
+    private final int    k;
+    /** Parameter c */
+    private final double c;
+    /** Parameter l, 0 if disabled */
+    private final int    l;
+    /** Parameter t, NaN if disabled */
+    private final double t;
+    /** Suppression limit */
+    private final double suppression;
+
+    /**
+     * Creates a new instance
+     * @param k
+     * @param c
+     * @param l
+     * @param t
+     * @param suppression
+     */
+    public SweepParameter(int k, double c, int l, double t, double suppression) {
+        this.k = k;
+        this.c = c;
+        this.l = l;
+        this.t = t;
+        this.suppression = suppression;
+    }
+
+    /**
+     * Returns c
+     * @return
+     */
+    public double getC() {
+        return c;
+    }
+
+    /**
+     * Returns k
+     * @return
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns l
+     * @return
+     */
+    public int getL() {
+        return l;
+    }
+
+    /**
+     * Returns the suppression limit
+     * @return
+     */
+    public double getSuppression() {
+        return suppression;
+    }
+
+    /**
+     * Returns t
+     * @return
+     */
+    public double getT() {
+        return t;
+    }
+
+    /**
+     * Returns whether l-diversity is enabled
+     * @return
+     */
+    public boolean isLDiversity() {
+        return l > 0;
+    }
+
+    /**
+     * Returns whether t-closeness is enabled
+     * @return
+     */
+    public boolean isTCloseness() {
+        return !Double.isNaN(t);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (k > 1 || (!isLDiversity() && !isTCloseness())) {
+            builder.append("k=").append(k);
+        }
+        if (isLDiversity()) {
+            if (builder.length() > 0) builder.append(" ");
+            builder.append("c=").append(c).append(" l=").append(l);
+        }
+        if (isTCloseness()) {
+            if (builder.length() > 0) builder.append(" ");
+            builder.append("t=").append(t);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.deidentifier.arx.sweep;
+
+/**
+ * The result of a sweep for a single parameter: the optimal transformation, its cost and
+ * the number of anonymous transformations.
+ *
+ * @author Fabian Prasser
+ */
+public class SweepResult {
+
+    /** The parameter */
+    private final SweepParameter parameter;
+    /** The optimum, null if none has been found */
+    private int[]                optimum;
+    /** The cost of the optimum */
+    private double               cost = Double.MAX_VALUE;
+    /** The number of records suppressed in the optimum */
+    private int                  suppressed;
+    /** The number of anonymous transformations */
+    private int                  anonymous;
+
+    /**
+     * Creates a new instance
+     * @param parameter
+     */
+    public SweepResult(SweepParameter parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Returns the number of anonymous transformations
+     * @return
+     */
+    public int getNumAnonymousTransformations() {
+        return anonymous;
+    }
+
+    /**
+     * Returns the cost (AECS) of the optimum
+     * @return
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the optimal transformation, null if none has been found
+     * @return
+     */
+    public int[] getOptimum() {
+        return optimum;
+    }
+
+    /**
+     * Returns the parameter
+     * @return
+     */
+    public SweepParameter getParameter() {
+        return parameter;
+    }
+
+    /**
+     * Returns the number of records suppressed in the optimum
+     * @return
+     */
+    public int getNumSuppressed() {
+        return suppressed;
+    }
+
+    /**
+     * Tracks an anonymous transformation
+     * @param transformation
+     * @param cost
+     * @param suppressed
+     */
+    void track(int[] transformation, double cost, int suppressed) {
+        this.anonymous++;
+        if (cost < this.cost) {
+            this.cost = cost;
+            this.optimum = transformation.clone();
+            this.suppressed = suppressed;
+        }
+    }
+}
@@ -21,7 +21,9 @@
 package org.deidentifier.arx.test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import junit.framework.TestCase;
 
@@ -63,8 +65,11 @@ public abstract class TestAbstract extends TestCase {
         // Initialize
         BenchmarkDriver driver = new BenchmarkDriver(null);
 
-        // For each algorithm
-        for (BenchmarkAlgorithm algorithm : BenchmarkSetup.getAlgorithms()) {
+        // For each algorithm, including those not part of the default grid
+        List<BenchmarkAlgorithm> algorithms = new ArrayList<BenchmarkAlgorithm>();
+        algorithms.addAll(Arrays.asList(BenchmarkSetup.getAlgorithms()));
+        algorithms.addAll(Arrays.asList(BenchmarkSetup.getParallelAlgorithms()));
+        for (BenchmarkAlgorithm algorithm : algorithms) {
             
             // Skip BFS, as it simply takes too long
             if (algorithm == BenchmarkAlgorithm.BFS) {
@@ -0,0 +1,160 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.analysis.Accumulator;
+import org.deidentifier.arx.analysis.Bootstrap;
+import org.deidentifier.arx.analysis.ResultsCube;
+import org.deidentifier.arx.analysis.ResultsCube.Aggregate;
+import org.junit.Test;
+
+import de.linearbits.subframe.analyzer.Analyzer;
+
+/**
+ * Tests the incremental analysis of results: accumulators, the results cube and the bootstrap
+ * 
+ * @author Fabian Prasser
+ */
+public class TestAnalysis extends TestCase {
+
+    /** The tolerance of comparisons of aggregates */
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testAccumulatorMerge() {
+        Random random = new Random(0);
+        Accumulator single = new Accumulator(true);
+        Accumulator merged = new Accumulator(true);
+        for (int i = 0; i < 3; i++) {
+            Accumulator part = new Accumulator(true);
+            for (int j = 0; j < 10 + i * 7; j++) {
+                double value = 1d + random.nextDouble() * 1000d;
+                single.add(value);
+                part.add(value);
+            }
+            merged.merge(part);
+        }
+        merged.merge(new Accumulator(true));
+        assertEquals(single.getCount(), merged.getCount());
+        for (Aggregate aggregate : Aggregate.values()) {
+            double expected = single.get(aggregate);
+            assertEquals(aggregate.toString(), expected, merged.get(aggregate), Math.abs(expected) * DELTA);
+        }
+        assertTrue(Arrays.equals(single.getValues(), merged.getValues()));
+    }
+
+    @Test
+    public void testBootstrapInterval() {
+        Bootstrap bootstrap = new Bootstrap(2000, 0.95d, 0L);
+        double[] sample = new double[50];
+        Random random = new Random(0);
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = 100d + random.nextGaussian();
+        }
+        double[] interval = bootstrap.getConfidenceInterval(sample);
+        assertTrue(interval[0] <= interval[1]);
+        assertTrue(interval[0] < 100.5d && interval[1] > 99.5d);
+        assertTrue("Not reproducible", Arrays.equals(interval, bootstrap.getConfidenceInterval(sample)));
+        double[] constant = bootstrap.getConfidenceInterval(new double[] { 3d, 3d, 3d });
+        assertEquals(3d, constant[0], 0d);
+        assertEquals(3d, constant[1], 0d);
+    }
+
+    @Test
+    public void testBootstrapPValue() {
+        Bootstrap bootstrap = new Bootstrap(2000, 0.95d, 0L);
+        double[] lower = { 1d, 2d, 1d, 2d, 1d };
+        double[] higher = { 10d, 11d, 10d, 11d, 10d };
+        assertEquals(0d, bootstrap.getPValue(lower, higher), 0d);
+        assertEquals(1d, bootstrap.getPValue(higher, lower), 0d);
+        try {
+            bootstrap.getPValue(new double[0], higher);
+            fail("Empty sample accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testResultsCubeOffset() throws IOException {
+        File file = File.createTempFile("results", ".csv");
+        try {
+            String header = ";;Number of checks\nAlgorithm;Dataset;" + Analyzer.VALUE + "\n";
+            write(file, header + "Flash;Adult;10.0\nOLA;Adult;20.0\nFlash;Cup;30.0\n", false);
+            ResultsCube first = ResultsCube.load(file);
+            write(file, "Flash;Adult;11.0\nOLA;Fars;40.0\n", true);
+            ResultsCube second = ResultsCube.load(file, first.getLength());
+            ResultsCube full = ResultsCube.load(file);
+
+            assertEquals(3, first.getNumRows());
+            assertEquals(2, second.getNumRows());
+            assertEquals(file.length(), second.getLength());
+            assertEquals(full.getLength(), second.getLength());
+            assertEquals(full.getHeader(), second.getHeader());
+
+            Map<List<String>, Accumulator> expected = full.group("Number of checks", Analyzer.VALUE, true, "Algorithm", "Dataset");
+            Map<List<String>, Accumulator> actual = first.group("Number of checks", Analyzer.VALUE, true, "Algorithm", "Dataset");
+            for (Map.Entry<List<String>, Accumulator> entry : second.group("Number of checks", Analyzer.VALUE, true, "Algorithm", "Dataset").entrySet()) {
+                Accumulator accumulator = actual.get(entry.getKey());
+                if (accumulator == null) {
+                    actual.put(entry.getKey(), entry.getValue());
+                } else {
+                    accumulator.merge(entry.getValue());
+                }
+            }
+            assertEquals(expected.keySet(), actual.keySet());
+            for (List<String> group : expected.keySet()) {
+                assertTrue(group.toString(), Arrays.equals(expected.get(group).getValues(), actual.get(group).getValues()));
+                assertEquals(group.toString(), expected.get(group).get(Aggregate.ARITHMETIC_MEAN), actual.get(group).get(Aggregate.ARITHMETIC_MEAN), DELTA);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Writes the given content to the given file
+     * @param file
+     * @param content
+     * @param append
+     * @throws IOException
+     */
+    private void write(File file, String content, boolean append) throws IOException {
+        OutputStream out = new FileOutputStream(file, append);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
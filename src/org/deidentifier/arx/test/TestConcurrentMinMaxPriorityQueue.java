@@ -0,0 +1,251 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.algorithm.ConcurrentMinMaxPriorityQueue;
+import org.junit.Test;
+
+/**
+ * Tests the concurrent min-max-queue, sequentially and under contention
+ * 
+ * @author Fabian Prasser
+ */
+public class TestConcurrentMinMaxPriorityQueue extends TestCase {
+
+    /** The number of threads */
+    private static final int THREADS  = 8;
+    /** The number of elements per thread */
+    private static final int ELEMENTS = 20000;
+
+    /**
+     * Task executed by each thread
+     */
+    private static interface Task {
+        public void run(int thread);
+    }
+
+    /** The comparator */
+    private final Comparator<Integer> comparator = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    @Test
+    public void testOrder() {
+        ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(Integer.MAX_VALUE, comparator);
+        List<Integer> values = getShuffled(1000);
+        for (Integer value : values) {
+            assertTrue(queue.add(value));
+        }
+        for (Integer value : values) {
+            assertFalse("Duplicate added", queue.add(value));
+        }
+        assertEquals(1000, queue.size());
+        assertEquals(Integer.valueOf(999), queue.removeTail());
+        for (int i = 0; i < 999; i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testEviction() {
+        ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(100, comparator);
+        for (Integer value : getShuffled(1000)) {
+            queue.add(value);
+            assertTrue(queue.size() <= 100);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testRemove() {
+        ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(Integer.MAX_VALUE, comparator);
+        queue.add(1);
+        queue.add(2);
+        assertTrue(queue.remove(1));
+        assertFalse(queue.remove(1));
+        assertTrue(queue.add(1));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testConcurrentAddPoll() throws Exception {
+
+        final ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(Integer.MAX_VALUE, comparator);
+        final ConcurrentMap<Integer, Integer> polled = new ConcurrentHashMap<Integer, Integer>();
+        final AtomicInteger duplicates = new AtomicInteger();
+
+        // Each thread adds a disjoint range and polls concurrently
+        run(new Task() {
+            @Override
+            public void run(int thread) {
+                for (int i = 0; i < ELEMENTS; i++) {
+                    queue.add(thread * ELEMENTS + i);
+                    if (i % 2 == 1) {
+                        Integer value = queue.poll();
+                        if (value != null && polled.put(value, value) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        });
+
+        // Drain
+        Integer previous = null;
+        Integer value;
+        while ((value = queue.poll()) != null) {
+            assertTrue("Order violated", previous == null || previous < value);
+            if (polled.put(value, value) != null) {
+                duplicates.incrementAndGet();
+            }
+            previous = value;
+        }
+        assertEquals("Elements polled twice", 0, duplicates.get());
+        assertEquals("Elements lost", THREADS * ELEMENTS, polled.size());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testConcurrentDuplicates() throws Exception {
+
+        final ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(Integer.MAX_VALUE, comparator);
+        final AtomicInteger added = new AtomicInteger();
+
+        // All threads add the same elements
+        run(new Task() {
+            @Override
+            public void run(int thread) {
+                for (Integer value : getShuffled(ELEMENTS)) {
+                    if (queue.add(value)) {
+                        added.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertEquals(ELEMENTS, added.get());
+        assertEquals(ELEMENTS, queue.size());
+        for (int i = 0; i < ELEMENTS; i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testConcurrentEviction() throws Exception {
+
+        final int capacity = 1000;
+        final ConcurrentMinMaxPriorityQueue<Integer> queue = new ConcurrentMinMaxPriorityQueue<Integer>(capacity, comparator);
+
+        // Each thread adds a disjoint range, with concurrent evictions
+        run(new Task() {
+            @Override
+            public void run(int thread) {
+                for (int i = 0; i < ELEMENTS; i++) {
+                    queue.add(i * THREADS + thread);
+                }
+            }
+        });
+
+        assertEquals(capacity, queue.size());
+        int count = 0;
+        Integer previous = null;
+        Integer value;
+        while ((value = queue.poll()) != null) {
+            assertTrue("Order violated", previous == null || previous < value);
+            previous = value;
+            count++;
+        }
+        assertEquals(capacity, count);
+    }
+
+    /**
+     * Returns the numbers 0 to size - 1 in random order
+     * @param size
+     * @return
+     */
+    private List<Integer> getShuffled(int size) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (int i = 0; i < size; i++) {
+            result.add(i);
+        }
+        Collections.shuffle(result, new Random(size));
+        return result;
+    }
+
+    /**
+     * Runs the task in all threads, which are started simultaneously
+     * @param task
+     * @throws Exception
+     */
+    private void run(final Task task) throws Exception {
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        task.run(thread);
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (error.get() != null) {
+            throw new RuntimeException(error.get());
+        }
+    }
+}
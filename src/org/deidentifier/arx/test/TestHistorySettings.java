@@ -0,0 +1,98 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.HistorySettings;
+import org.deidentifier.arx.HistorySettings.StorageTrigger;
+import org.junit.Test;
+
+/**
+ * Tests persisting history settings as profiles
+ * 
+ * @author Fabian Prasser
+ */
+public class TestHistorySettings extends TestCase {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = File.createTempFile("history", ".properties");
+        try {
+            for (StorageTrigger trigger : StorageTrigger.values()) {
+                HistorySettings settings = new HistorySettings(123, 0.125d, 0.3d, trigger);
+                settings.write(file);
+                HistorySettings loaded = HistorySettings.load(file);
+                assertEquals(settings.getHistorySize(), loaded.getHistorySize());
+                assertEquals(settings.getSnapshotSizeDataset(), loaded.getSnapshotSizeDataset(), 0d);
+                assertEquals(settings.getSnapshotSizeSnapshot(), loaded.getSnapshotSizeSnapshot(), 0d);
+                assertEquals(settings.getStorageTrigger(), loaded.getStorageTrigger());
+                assertEquals(settings.toString(), loaded.toString());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        File file = File.createTempFile("history", ".properties");
+        try {
+            write(file, "historySize=200\nsnapshotSizeDataset=0.2\n");
+            try {
+                HistorySettings.load(file);
+                fail("Incomplete settings accepted");
+            } catch (IOException e) {
+                // Expected
+            }
+            write(file, "historySize=200\nsnapshotSizeDataset=0.2\nsnapshotSizeSnapshot=0.8\nstorageTrigger=SOME\n");
+            try {
+                HistorySettings.load(file);
+                fail("Invalid settings accepted");
+            } catch (IOException e) {
+                // Expected
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Writes the given content to the given file
+     * @param file
+     * @param content
+     * @throws IOException
+     */
+    private void write(File file, String content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+    }
+}
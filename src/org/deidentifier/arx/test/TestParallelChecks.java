@@ -0,0 +1,68 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.BenchmarkDriver;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkCriterion;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkDataset;
+import org.deidentifier.arx.BenchmarkSetup.BenchmarkMetric;
+import org.junit.Test;
+
+/**
+ * Tests that the checkers used by parallel algorithms return the same verdicts as a single
+ * checker, for criteria which keep working buffers
+ * 
+ * @author Fabian Prasser
+ */
+public class TestParallelChecks extends TestCase {
+
+    @Test
+    public void testTCloseness() throws IOException {
+        test(BenchmarkDataset.ADULT, BenchmarkCriterion.T_CLOSENESS);
+        test(BenchmarkDataset.CUP, BenchmarkCriterion.T_CLOSENESS);
+    }
+
+    @Test
+    public void testKAnonymityTCloseness() throws IOException {
+        test(BenchmarkDataset.ADULT, BenchmarkCriterion.K_ANONYMITY, BenchmarkCriterion.T_CLOSENESS);
+    }
+
+    @Test
+    public void testLDiversity() throws IOException {
+        test(BenchmarkDataset.ADULT, BenchmarkCriterion.L_DIVERSITY);
+    }
+
+    /**
+     * Compares the verdicts for all transformations
+     * @param dataset
+     * @param criteria
+     * @throws IOException
+     */
+    private void test(BenchmarkDataset dataset, BenchmarkCriterion... criteria) throws IOException {
+        BenchmarkDriver driver = new BenchmarkDriver(null);
+        assertEquals(dataset + ": Verdicts don't match", 0, driver.getNumInconsistentVerdicts(criteria, dataset, BenchmarkMetric.LOSS, 0d));
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.BenchmarkDriver;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.criteria.RecursiveCLDiversity;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.sweep.EncodedData;
+import org.deidentifier.arx.sweep.ParameterSweep;
+import org.deidentifier.arx.sweep.SweepParameter;
+import org.deidentifier.arx.sweep.SweepResult;
+import org.junit.Test;
+
+/**
+ * Tests that the verdicts of the parameter sweep match the checks of the criteria implemented
+ * by ARX for all transformations of a small dataset, with and without roll-ups
+ * 
+ * @author Fabian Prasser
+ */
+public class TestParameterSweep extends TestCase {
+
+    /** The dataset */
+    private static final String[]   DATA                = { "age;gender;zipcode;disease",
+                                                            "25;male;47677;flu",
+                                                            "25;female;47602;gastritis",
+                                                            "28;male;47678;pneumonia",
+                                                            "28;female;47677;flu",
+                                                            "34;male;47602;bronchitis",
+                                                            "34;female;47678;ulcer",
+                                                            "37;male;47905;gastritis",
+                                                            "37;female;47909;flu",
+                                                            "45;male;47906;stomach cancer",
+                                                            "45;female;47905;pneumonia",
+                                                            "48;male;47909;ulcer",
+                                                            "48;female;47906;bronchitis" };
+
+    /** The quasi-identifiers, in the order of the columns */
+    private static final String[]   QUASI_IDENTIFIERS   = { "age", "gender", "zipcode" };
+
+    /** The hierarchies of the quasi-identifiers */
+    private static final String[][] HIERARCHIES         = { { "25;20-39;*",
+                                                              "28;20-39;*",
+                                                              "34;20-39;*",
+                                                              "37;20-39;*",
+                                                              "45;40-59;*",
+                                                              "48;40-59;*" },
+                                                            { "male;*",
+                                                              "female;*" },
+                                                            { "47677;476**;*",
+                                                              "47602;476**;*",
+                                                              "47678;476**;*",
+                                                              "47905;479**;*",
+                                                              "47909;479**;*",
+                                                              "47906;479**;*" } };
+
+    /** The sensitive attribute */
+    private static final String     SENSITIVE           = "disease";
+
+    /** The hierarchy of the sensitive attribute */
+    private static final String[]   SENSITIVE_HIERARCHY = { "flu;respiratory;*",
+                                                            "pneumonia;respiratory;*",
+                                                            "bronchitis;respiratory;*",
+                                                            "gastritis;digestive;*",
+                                                            "ulcer;digestive;*",
+                                                            "stomach cancer;digestive;*" };
+
+    @Test
+    public void testKAnonymity() throws IOException {
+        test(SweepParameter.createKAnonymity(2, 0d),
+             SweepParameter.createKAnonymity(3, 0d),
+             SweepParameter.createKAnonymity(4, 0.25d));
+    }
+
+    @Test
+    public void testLDiversity() throws IOException {
+        test(SweepParameter.createLDiversity(2d, 2, 0d),
+             SweepParameter.createLDiversity(3d, 2, 0.1d),
+             SweepParameter.createLDiversity(2d, 3, 0.25d));
+    }
+
+    @Test
+    public void testTCloseness() throws IOException {
+        test(SweepParameter.createTCloseness(0.21d, 0d),
+             SweepParameter.createTCloseness(0.42d, 0d),
+             SweepParameter.createTCloseness(0.21d, 0.25d));
+    }
+
+    @Test
+    public void testMixed() throws IOException {
+        test(SweepParameter.createKAnonymity(2, 0d),
+             SweepParameter.createLDiversity(2d, 2, 0d),
+             SweepParameter.createTCloseness(0.42d, 0.1d));
+    }
+
+    /**
+     * Sweeps all parameters and compares the results with ARX, which checks each parameter
+     * for all transformations separately
+     * @param parameters
+     * @throws IOException
+     */
+    private void test(SweepParameter... parameters) throws IOException {
+
+        BenchmarkDriver driver = new BenchmarkDriver(null);
+        for (boolean rollup : new boolean[] { false, true }) {
+            SweepResult[] results = new ParameterSweep(getEncodedData(), parameters, rollup).run();
+            for (int i = 0; i < parameters.length; i++) {
+                String message = parameters[i] + " (" + parameters[i].getSuppression() + (rollup ? ", roll-ups" : "") + "): ";
+                List<int[]> expected = driver.getAnonymousTransformations(getData(parameters[i]), getConfiguration(parameters[i]));
+                assertEquals(message + "Number of anonymous transformations doesn't match", expected.size(), results[i].getNumAnonymousTransformations());
+                if (expected.isEmpty()) {
+                    assertNull(message + "Optimum found without anonymous transformation", results[i].getOptimum());
+                } else {
+                    assertTrue(message + "Optimum is not anonymous", contains(expected, results[i].getOptimum()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the list contains the transformation
+     * @param list
+     * @param transformation
+     * @return
+     */
+    private boolean contains(List<int[]> list, int[] transformation) {
+        for (int[] element : list) {
+            if (Arrays.equals(element, transformation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an ARX configuration for the parameter
+     * @param parameter
+     * @return
+     * @throws IOException
+     */
+    private ARXConfiguration getConfiguration(SweepParameter parameter) throws IOException {
+        ARXConfiguration config = ARXConfiguration.create();
+        config.setMetric(Metric.createAECSMetric());
+        config.setMaxOutliers(parameter.getSuppression());
+        if (parameter.getK() > 1) {
+            config.addCriterion(new KAnonymity(parameter.getK()));
+        }
+        if (parameter.isLDiversity()) {
+            config.addCriterion(new RecursiveCLDiversity(SENSITIVE, parameter.getC(), parameter.getL()));
+        }
+        if (parameter.isTCloseness()) {
+            config.addCriterion(new HierarchicalDistanceTCloseness(SENSITIVE, parameter.getT(), Hierarchy.create(write(SENSITIVE_HIERARCHY), ';')));
+        }
+        return config;
+    }
+
+    /**
+     * Returns the dataset with the attribute types required by the parameter
+     * @param parameter
+     * @return
+     * @throws IOException
+     */
+    private Data getData(SweepParameter parameter) throws IOException {
+        Data data = Data.create(write(DATA), ';');
+        for (int i = 0; i < QUASI_IDENTIFIERS.length; i++) {
+            data.getDefinition().setAttributeType(QUASI_IDENTIFIERS[i], Hierarchy.create(write(HIERARCHIES[i]), ';'));
+        }
+        if (parameter.isLDiversity() || parameter.isTCloseness()) {
+            data.getDefinition().setAttributeType(SENSITIVE, AttributeType.SENSITIVE_ATTRIBUTE);
+        }
+        return data;
+    }
+
+    /**
+     * Returns the encoded dataset
+     * @return
+     * @throws IOException
+     */
+    private EncodedData getEncodedData() throws IOException {
+        String[][][] hierarchies = new String[QUASI_IDENTIFIERS.length][][];
+        for (int i = 0; i < hierarchies.length; i++) {
+            hierarchies[i] = split(HIERARCHIES[i]);
+        }
+        return new EncodedData(Data.create(write(DATA), ';').getHandle(),
+                               QUASI_IDENTIFIERS,
+                               hierarchies,
+                               SENSITIVE,
+                               split(SENSITIVE_HIERARCHY));
+    }
+
+    /**
+     * Splits the given lines into their values
+     * @param lines
+     * @return
+     */
+    private String[][] split(String[] lines) {
+        String[][] result = new String[lines.length][];
+        for (int i = 0; i < lines.length; i++) {
+            result[i] = lines[i].split(";");
+        }
+        return result;
+    }
+
+    /**
+     * Writes the given lines to a temporary file and returns its path
+     * @param lines
+     * @return
+     * @throws IOException
+     */
+    private String write(String[] lines) throws IOException {
+        File file = File.createTempFile("sweep", ".csv");
+        file.deleteOnExit();
+        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+        try {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        } finally {
+            writer.close();
+        }
+        return file.getPath();
+    }
+}
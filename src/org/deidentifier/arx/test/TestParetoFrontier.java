@@ -0,0 +1,78 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.analysis.ParetoFrontier;
+import org.junit.Test;
+
+/**
+ * Tests the Pareto frontier of the quality-vs-cost comparison
+ * 
+ * @author Fabian Prasser
+ */
+public class TestParetoFrontier extends TestCase {
+
+    @Test
+    public void testDominated() {
+        double[] loss = { 1d, 2d, 3d, 2d, 1d };
+        double[] time = { 5d, 3d, 1d, 4d, 6d };
+        boolean[] frontier = ParetoFrontier.getFrontier(loss, time);
+        assertTrue(Arrays.equals(new boolean[] { true, true, true, false, false }, frontier));
+    }
+
+    @Test
+    public void testEqual() {
+        double[] loss = { 1d, 1d, 2d };
+        double[] time = { 1d, 1d, 2d };
+        boolean[] frontier = ParetoFrontier.getFrontier(loss, time);
+        assertTrue(Arrays.equals(new boolean[] { true, true, false }, frontier));
+    }
+
+    @Test
+    public void testInvalid() {
+        try {
+            ParetoFrontier.getFrontier();
+            fail("No objectives accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            ParetoFrontier.getFrontier(new double[] { 1d, 2d }, new double[] { 1d });
+            fail("Objectives of different sizes accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testNaN() {
+        double[] loss = { Double.NaN, 2d, 3d };
+        double[] time = { 0d, 3d, Double.NaN };
+        boolean[] frontier = ParetoFrontier.getFrontier(loss, time);
+        assertTrue("NaN on frontier or dominating", Arrays.equals(new boolean[] { false, true, false }, frontier));
+        assertTrue(Arrays.equals(new boolean[] { false }, ParetoFrontier.getFrontier(new double[] { Double.NaN })));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Source code of our CBMS 2014 paper "A benchmark of globally-optimal
+ * methods for the de-identification of biomedical data"
+ *
+ * Copyright (C) 2014 Florian Kohlmayer, Fabian Prasser
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.deidentifier.arx.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.deidentifier.arx.algorithm.TraceReader;
+import org.deidentifier.arx.algorithm.TraceWriter;
+import org.junit.Test;
+
+/**
+ * Tests writing and reading traversal traces
+ * 
+ * @author Fabian Prasser
+ */
+public class TestTrace extends TestCase {
+
+    /** The number of attributes */
+    private static final int DIMENSIONS = 9;
+    /** The number of records */
+    private static final int RECORDS    = 10000;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = File.createTempFile("trace", ".bin");
+        try {
+
+            // Write
+            Random random = new Random(0);
+            int[][] transformations = new int[RECORDS][DIMENSIONS];
+            double[] losses = new double[RECORDS];
+            TraceWriter writer = new TraceWriter(file, DIMENSIONS);
+            try {
+                for (int i = 0; i < RECORDS; i++) {
+                    for (int j = 0; j < DIMENSIONS; j++) {
+                        transformations[i][j] = random.nextInt(256);
+                    }
+                    losses[i] = i % 10 == 0 ? Double.NaN : random.nextDouble();
+                    writer.write(transformations[i], i % 2 == 0, i % 3 == 0, losses[i], i);
+                }
+                assertEquals(RECORDS, writer.getNumRecords());
+            } finally {
+                writer.close();
+            }
+
+            // Read
+            TraceReader reader = new TraceReader(file);
+            try {
+                for (int i = 0; i < RECORDS; i++) {
+                    assertTrue("Missing record " + i, reader.next());
+                    assertTrue(Arrays.equals(transformations[i], reader.getTransformation()));
+                    assertEquals(i % 2 == 0, reader.isAnonymous());
+                    assertEquals(i % 3 == 0, reader.isKAnonymous());
+                    assertEquals(losses[i], reader.getInformationLoss(), 0d);
+                    assertEquals(i, reader.getLatency());
+                }
+                assertFalse("Additional record", reader.next());
+            } finally {
+                reader.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        File file = File.createTempFile("trace", ".bin");
+        try {
+            TraceWriter writer = new TraceWriter(file, 2);
+            try {
+                writer.write(new int[] { 1, 2, 3 }, true, true, 0d, 0L);
+                fail("Transformation of wrong size accepted");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+            try {
+                writer.write(new int[] { 1, 256 }, true, true, 0d, 0L);
+                fail("Level out of range accepted");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+            writer.close();
+            assertEquals(0, writer.getNumRecords());
+            TraceReader reader = new TraceReader(file);
+            assertFalse(reader.next());
+            reader.close();
+        } finally {
+            file.delete();
+        }
+    }
+}